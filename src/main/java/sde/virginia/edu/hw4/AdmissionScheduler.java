@@ -0,0 +1,238 @@
+package sde.virginia.edu.hw4;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spreads registration load out over time. Each {@link Student} belongs to a cohort by their year, and cohorts get
+ * staggered registration windows: fourth years (and beyond) first, then third years one window later, and so on. A
+ * student's window stays open once it opens.<br>
+ * Inside their window, students are admitted at a limited rate by a token bucket that refills at a fixed number of
+ * requests per second, up to a burst size. Students who find the bucket empty wait in a first-come, first-served
+ * queue for up to a maximum wait, and are turned away if no token frees up in time.
+ * @see RegistrationService
+ */
+public class AdmissionScheduler {
+    /**
+     * The year of the first cohort to register. Students in this year or later register in the first window.
+     */
+    public static final int FIRST_COHORT_YEAR = 4;
+
+    /**
+     * The outcome of asking for admission
+     */
+    public enum Admission {
+        /**
+         * The student may send their request now
+         */
+        ADMITTED,
+        /**
+         * The student's registration window has not opened yet
+         */
+        OUTSIDE_WINDOW,
+        /**
+         * No admission was available within the maximum wait
+         */
+        THROTTLED
+    }
+
+    /**
+     * Waits for a token to refill. Injected alongside the {@link Clock} so that waits follow the same time source as
+     * the token bucket.
+     */
+    @FunctionalInterface
+    public interface Sleeper {
+        /**
+         * Waits for a duration
+         * @param duration how long to wait
+         * @throws InterruptedException if interrupted while waiting
+         */
+        void sleep(Duration duration) throws InterruptedException;
+    }
+
+    private final RegistrationService registrationService;
+    private final Instant registrationOpens;
+    private final Duration cohortSpacing;
+    private final double requestsPerSecond;
+    private final int burst;
+    private final Duration maxWait;
+    private final Clock clock;
+    private final Sleeper sleeper;
+
+    /**
+     * The fair queue of students waiting for a token. Only the student at the front of the queue waits on the bucket,
+     * and the bucket is only read or updated while holding the queue.
+     */
+    private final ReentrantLock queue = new ReentrantLock(true);
+    private double tokens;
+    private long lastRefillMillis;
+
+    /**
+     * Creates a scheduler that waits for tokens with {@link Thread#sleep(long)}
+     * @see AdmissionScheduler#AdmissionScheduler(RegistrationService, Instant, Duration, double, int, Duration,
+     * Clock, Sleeper)
+     */
+    public AdmissionScheduler(RegistrationService registrationService, Instant registrationOpens,
+                              Duration cohortSpacing, double requestsPerSecond, int burst, Duration maxWait,
+                              Clock clock) {
+        this(registrationService, registrationOpens, cohortSpacing, requestsPerSecond, burst, maxWait, clock,
+                duration -> Thread.sleep(duration.toMillis()));
+    }
+
+    /**
+     * @param registrationService the {@link RegistrationService} admitted requests are sent to
+     * @param registrationOpens when the first cohort's window opens
+     * @param cohortSpacing the time between one cohort's window opening and the next
+     * @param requestsPerSecond the rate the token bucket refills at
+     * @param burst the most tokens the bucket can hold
+     * @param maxWait the longest a student waits in the queue for a token
+     * @param clock the {@link Clock} used for windows, refills and the maximum wait
+     * @param sleeper the {@link Sleeper} used to wait for a token
+     * @throws IllegalArgumentException if any argument is null, the rate or burst is not positive, or either duration
+     * is negative
+     */
+    public AdmissionScheduler(RegistrationService registrationService, Instant registrationOpens,
+                              Duration cohortSpacing, double requestsPerSecond, int burst, Duration maxWait,
+                              Clock clock, Sleeper sleeper) {
+        if (registrationService == null || registrationOpens == null || cohortSpacing == null ||
+                cohortSpacing.isNegative() || !(requestsPerSecond > 0) || burst <= 0 || maxWait == null ||
+                maxWait.isNegative() || clock == null || sleeper == null) {
+            throw new IllegalArgumentException("Invalid AdmissionScheduler Initialization");
+        }
+        this.registrationService = registrationService;
+        this.registrationOpens = registrationOpens;
+        this.cohortSpacing = cohortSpacing;
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.maxWait = maxWait;
+        this.clock = clock;
+        this.sleeper = sleeper;
+        this.tokens = burst;
+        this.lastRefillMillis = clock.millis();
+    }
+
+    /**
+     * Gets when a student's registration window opens
+     * @param student the {@link Student}
+     * @return the start of the student's cohort's window
+     */
+    public Instant getWindowStart(Student student) {
+        var cohort = Math.max(0, FIRST_COHORT_YEAR - student.getYear());
+        return registrationOpens.plus(cohortSpacing.multipliedBy(cohort));
+    }
+
+    /**
+     * Checks if a student's registration window has opened
+     * @param student the {@link Student}
+     * @return true if the student may register now, subject to the rate limit
+     */
+    public boolean isInWindow(Student student) {
+        return !clock.instant().isBefore(getWindowStart(student));
+    }
+
+    /**
+     * Admits a student only if their window is open, a token is available right now, and nobody is queued ahead of
+     * them.
+     * @param student the {@link Student} asking for admission
+     * @return the {@link Admission}
+     */
+    public Admission tryAdmit(Student student) {
+        if (!isInWindow(student)) {
+            return Admission.OUTSIDE_WINDOW;
+        }
+        try {
+            // a timed tryLock honors the queue's fairness, so it fails if anyone is waiting ahead
+            if (!queue.tryLock(0, TimeUnit.NANOSECONDS)) {
+                return Admission.THROTTLED;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Admission.THROTTLED;
+        }
+        try {
+            return millisUntilToken() == 0 ? Admission.ADMITTED : Admission.THROTTLED;
+        } finally {
+            queue.unlock();
+        }
+    }
+
+    /**
+     * Admits a student once their window is open and a token is available, waiting in the queue for up to the
+     * maximum wait. The wait is measured by the scheduler's {@link Clock}, both in the queue and at its front: a
+     * student only waits in the queue behind students whose own maximum waits end first, and is turned away on
+     * reaching the front if their maximum wait has already passed.
+     * @param student the {@link Student} asking for admission
+     * @return the {@link Admission}
+     */
+    public Admission admit(Student student) {
+        if (!isInWindow(student)) {
+            return Admission.OUTSIDE_WINDOW;
+        }
+        var deadline = clock.millis() + maxWait.toMillis();
+        try {
+            queue.lockInterruptibly();
+            try {
+                if (clock.millis() > deadline) {
+                    return Admission.THROTTLED;
+                }
+                while (true) {
+                    var waitMillis = millisUntilToken();
+                    if (waitMillis == 0) {
+                        return Admission.ADMITTED;
+                    }
+                    if (waitMillis > deadline - clock.millis()) {
+                        return Admission.THROTTLED;
+                    }
+                    sleeper.sleep(Duration.ofMillis(waitMillis));
+                }
+            } finally {
+                queue.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Admission.THROTTLED;
+        }
+    }
+
+    /**
+     * Registers a student once they are {@link AdmissionScheduler#admit(Student) admitted}.
+     * @param student the {@link Student} attempting to enroll in a section.
+     * @param section the {@link Section} the student is attempting to enroll in
+     * @return {@link RegistrationService.RegistrationResult#FAILED_OUTSIDE_REGISTRATION_WINDOW} if the student's
+     * window has not opened, {@link RegistrationService.RegistrationResult#FAILED_TRY_AGAIN_LATER} if the student
+     * was not admitted in time, or otherwise the result of the registration.
+     * @see RegistrationService#register(Student, Section)
+     */
+    public RegistrationService.RegistrationResult register(Student student, Section section) {
+        return switch (admit(student)) {
+            case OUTSIDE_WINDOW -> RegistrationService.RegistrationResult.FAILED_OUTSIDE_REGISTRATION_WINDOW;
+            case THROTTLED -> RegistrationService.RegistrationResult.FAILED_TRY_AGAIN_LATER;
+            case ADMITTED -> registrationService.register(student, section);
+        };
+    }
+
+    /**
+     * Gets the number of students waiting in the queue for a token
+     */
+    public int getQueueLength() {
+        return queue.getQueueLength();
+    }
+
+    /**
+     * Takes a token if one is available. Only called while holding the queue.
+     * @return 0 if a token was taken, otherwise the number of milliseconds until the next token is available
+     */
+    private long millisUntilToken() {
+        var now = clock.millis();
+        tokens = Math.min(burst, tokens + (now - lastRefillMillis) * requestsPerSecond / 1000);
+        lastRefillMillis = now;
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) * 1000 / requestsPerSecond));
+    }
+}
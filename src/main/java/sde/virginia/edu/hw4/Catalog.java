@@ -1,8 +1,17 @@
 package sde.virginia.edu.hw4;
 
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 /**
@@ -19,6 +28,42 @@ public class Catalog {
      * The sections in this catalog
      */
     private final Set<Section> sections;
+    /**
+     * The sections in this catalog, indexed by their course registration number (CRN)
+     */
+    private final Map<Integer, Section> sectionsByCRN;
+    /**
+     * Sections that share a CRN with the section in {@link Catalog#sectionsByCRN}. CRNs are normally unique, so this
+     * is usually empty.
+     */
+    private final Map<Integer, Set<Section>> duplicatesByCRN;
+    /**
+     * The sections in this catalog, grouped by their {@link Lecturer}
+     */
+    private final Map<Lecturer, Set<Section>> sectionsByLecturer;
+    /**
+     * The sections in this catalog, grouped by their {@link Location}
+     */
+    private final Map<Location, Set<Section>> sectionsByLocation;
+    /**
+     * The sections in this catalog, grouped by their {@link Course}
+     */
+    private final Map<Course, Set<Section>> sectionsByCourse;
+    /**
+     * The sections in this catalog, grouped by their course mnemonic (i.e., "CS"). Built the first time a search
+     * filters by mnemonic, and kept up to date from then on.
+     */
+    private Map<String, Set<Section>> sectionsByMnemonic;
+    /**
+     * The time slots booked in each {@link Location}. Built for a location the first time it is queried, and kept
+     * up to date from then on.
+     */
+    private final Map<Location, LocationBookings> bookingsByLocation;
+    /**
+     * The weekly occupancy of each {@link Lecturer}. Built for a lecturer the first time they are queried, and kept
+     * up to date from then on.
+     */
+    private final Map<Lecturer, WeeklyOccupancy> occupancyByLecturer;
 
     /**
      * Constructor
@@ -40,6 +85,14 @@ public class Catalog {
         }
         this.semester = semester;
         this.sections = sections;
+        this.sectionsByCRN = new HashMap<>();
+        this.duplicatesByCRN = new HashMap<>();
+        this.sectionsByLecturer = new HashMap<>();
+        this.sectionsByLocation = new HashMap<>();
+        this.sectionsByCourse = new HashMap<>();
+        this.bookingsByLocation = new HashMap<>();
+        this.occupancyByLecturer = new HashMap<>();
+        sections.forEach(this::index);
     }
 
     /**
@@ -64,11 +117,31 @@ public class Catalog {
      * @throws IllegalArgumentException if the section is not in the same {@link Semester} as the catalog
      */
     public boolean add(Section section) {
-        if (section.getSemester() != semester) {
+        if (!semester.equals(section.getSemester())) {
             throw new IllegalArgumentException("This section's semester: " + section.getSemester() + " is different " +
                     "from the CourseCatalog's semester: " + this.semester);
         }
-        return sections.add(section);
+        if (!sections.add(section)) {
+            return false;
+        }
+        index(section);
+        return true;
+    }
+
+    /**
+     * Adds several sections to the Catalog
+     * @param sections the sections to be added
+     * @return true if any section was added, but false if all the sections were already in the catalog
+     * @throws IllegalArgumentException if any section is not in the same {@link Semester} as the catalog. Sections
+     * before it are still added.
+     * @see Catalog#add(Section)
+     */
+    public boolean addAll(Collection<Section> sections) {
+        var changed = false;
+        for (Section section : sections) {
+            changed |= add(section);
+        }
+        return changed;
     }
 
     /**
@@ -77,7 +150,11 @@ public class Catalog {
      * @return true if the section was present and was removed. False if the section was not present.
      */
     public boolean remove(Section section) {
-        return sections.remove(section);
+        if (!sections.remove(section)) {
+            return false;
+        }
+        unindex(section);
+        return true;
     }
 
     /**
@@ -94,11 +171,269 @@ public class Catalog {
      * @return an Optional of the matching Section. The optional is empty if no section with the CRN exists.
      */
     public Optional<Section> getSectionByCRN(int courseRegistrationNumber) {
-        for (Section section : sections) {
-            if (section.getCourseRegistrationNumber() == courseRegistrationNumber) {
-                return Optional.of(section);
+        return Optional.ofNullable(sectionsByCRN.get(courseRegistrationNumber));
+    }
+
+    /**
+     * Get the sections taught by a lecturer
+     * @param lecturer the {@link Lecturer}
+     * @return an unmodifiable view of the {@link Section}s in this catalog taught by the lecturer
+     */
+    public Set<Section> getSectionsByLecturer(Lecturer lecturer) {
+        return lookup(sectionsByLecturer, lecturer);
+    }
+
+    /**
+     * Get the sections held in a location
+     * @param location the {@link Location}
+     * @return an unmodifiable view of the {@link Section}s in this catalog held in the location
+     */
+    public Set<Section> getSectionsByLocation(Location location) {
+        return lookup(sectionsByLocation, location);
+    }
+
+    /**
+     * Get the sections offered for a course
+     * @param course the {@link Course}
+     * @return an unmodifiable view of the {@link Section}s in this catalog that are offerings of the course
+     */
+    public Set<Section> getSectionsByCourse(Course course) {
+        return lookup(sectionsByCourse, course);
+    }
+
+    /**
+     * Checks whether a location is free for a time slot
+     * @param location the {@link Location}
+     * @param timeSlot the {@link TimeSlot} to check
+     * @return true if no section in this catalog uses the location at an overlapping time
+     * @see LocationBookings#overlapsWith(TimeSlot)
+     */
+    public boolean isLocationAvailable(Location location, TimeSlot timeSlot) {
+        return !getBookings(location).overlapsWith(timeSlot);
+    }
+
+    /**
+     * Get the windows of time on a given day when a location is not used by any section in this catalog
+     * @param location the {@link Location}
+     * @param day the {@link DayOfWeek}
+     * @return the free windows, in order, each as a single-day {@link TimeSlot}
+     * @see LocationBookings#getFreeWindows(DayOfWeek)
+     */
+    public List<TimeSlot> getFreeWindows(Location location, DayOfWeek day) {
+        return getBookings(location).getFreeWindows(day);
+    }
+
+    /**
+     * Checks whether a lecturer is free for a time slot
+     * @param lecturer the {@link Lecturer}
+     * @param timeSlot the {@link TimeSlot} to check
+     * @return true if the lecturer teaches no section in this catalog at an overlapping time
+     * @see WeeklyOccupancy#intersects(TimeSlot)
+     */
+    public boolean isLecturerAvailable(Lecturer lecturer, TimeSlot timeSlot) {
+        if (!getOccupancy(lecturer).intersects(timeSlot)) {
+            return true;
+        }
+        for (Section section : getSectionsByLecturer(lecturer)) {
+            if (section.overlapsWith(timeSlot)) {
+                return false;
             }
         }
-        return Optional.empty();
+        return true;
+    }
+
+    private WeeklyOccupancy getOccupancy(Lecturer lecturer) {
+        var occupancy = occupancyByLecturer.get(lecturer);
+        if (occupancy == null) {
+            occupancy = new WeeklyOccupancy();
+            for (Section section : getSectionsByLecturer(lecturer)) {
+                occupancy.mark(section.getTimeSlot());
+            }
+            occupancyByLecturer.put(lecturer, occupancy);
+        }
+        return occupancy;
+    }
+
+    private LocationBookings getBookings(Location location) {
+        var bookings = bookingsByLocation.get(location);
+        if (bookings == null) {
+            bookings = new LocationBookings();
+            getSectionsByLocation(location).forEach(bookings::add);
+            bookingsByLocation.put(location, bookings);
+        }
+        return bookings;
+    }
+
+    /**
+     * A page of catalog search results
+     * @param sections the matching sections on this page, ordered by CRN
+     * @param nextCursor the cursor for the next page, or empty if this is the last page
+     * @see Catalog#search(SectionQuery, int, int)
+     */
+    public record SearchPage(List<Section> sections, OptionalInt nextCursor) {}
+
+    /**
+     * Passed as the cursor to {@link Catalog#search(SectionQuery, int, int)} to get the first page of results
+     */
+    public static final int FIRST_PAGE = -1;
+
+    /**
+     * Searches the catalog for sections matching a query, one page at a time. Results are ordered by CRN.<br>
+     * When the query filters by lecturer or mnemonic, only the smaller of those indexed groups of sections is
+     * scanned. The other filters are applied to each candidate, keeping only the page being requested.
+     * @param query the {@link SectionQuery} to match
+     * @param cursor {@link Catalog#FIRST_PAGE} for the first page, otherwise the
+     *               {@link SearchPage#nextCursor() nextCursor} of the previous page.
+     * @param pageSize the maximum number of sections to return
+     * @return the {@link SearchPage} of matching sections
+     */
+    public SearchPage search(SectionQuery query, int cursor, int pageSize) {
+        var mnemonicIndex = query.getMnemonic() == null ? Map.<String, Set<Section>>of() : getSectionsByMnemonic();
+        return search(query, cursor, pageSize, sections, sectionsByLecturer, mnemonicIndex);
+    }
+
+    /**
+     * Searches a set of sections for those matching a query, one page at a time, using the given indexes of those
+     * sections to narrow the candidates.
+     * @param sections every {@link Section} being searched
+     * @param sectionsByLecturer the sections grouped by their {@link Lecturer}
+     * @param sectionsByMnemonic the sections grouped by their course mnemonic. Only used if the query filters by
+     *                           mnemonic.
+     * @see Catalog#search(SectionQuery, int, int)
+     */
+    protected static SearchPage search(SectionQuery query, int cursor, int pageSize, Set<Section> sections,
+                                       Map<Lecturer, Set<Section>> sectionsByLecturer,
+                                       Map<String, Set<Section>> sectionsByMnemonic) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        var candidates = sections;
+        if (query.getLecturer() != null) {
+            candidates = sectionsByLecturer.getOrDefault(query.getLecturer(), Collections.emptySet());
+        }
+        if (query.getMnemonic() != null) {
+            var mnemonicCandidates = sectionsByMnemonic.getOrDefault(query.getMnemonic(),
+                    Collections.emptySet());
+            if (mnemonicCandidates.size() < candidates.size()) {
+                candidates = mnemonicCandidates;
+            }
+        }
+
+        // keeps the pageSize + 1 lowest matching CRNs after the cursor, with the highest on top
+        var page = new PriorityQueue<Section>(pageSize + 1,
+                Comparator.comparingInt(Section::getCourseRegistrationNumber).reversed());
+        for (Section section : candidates) {
+            var crn = section.getCourseRegistrationNumber();
+            if (crn <= cursor) {
+                continue;
+            }
+            if (page.size() > pageSize && crn >= page.peek().getCourseRegistrationNumber()) {
+                continue;
+            }
+            if (query.matches(section)) {
+                page.add(section);
+                if (page.size() > pageSize + 1) {
+                    page.poll();
+                }
+            }
+        }
+
+        var hasNextPage = page.size() > pageSize;
+        if (hasNextPage) {
+            page.poll();
+        }
+        var results = new ArrayList<>(page);
+        results.sort(Comparator.comparingInt(Section::getCourseRegistrationNumber));
+        var nextCursor = hasNextPage ?
+                OptionalInt.of(results.get(results.size() - 1).getCourseRegistrationNumber()) : OptionalInt.empty();
+        return new SearchPage(Collections.unmodifiableList(results), nextCursor);
+    }
+
+    private Map<String, Set<Section>> getSectionsByMnemonic() {
+        if (sectionsByMnemonic == null) {
+            sectionsByMnemonic = new HashMap<>();
+            for (Map.Entry<Course, Set<Section>> entry : sectionsByCourse.entrySet()) {
+                sectionsByMnemonic.computeIfAbsent(entry.getKey().getMnemonic(), mnemonic -> new HashSet<>())
+                        .addAll(entry.getValue());
+            }
+        }
+        return sectionsByMnemonic;
+    }
+
+    private static <K> Set<Section> lookup(Map<K, Set<Section>> index, K key) {
+        var indexedSections = index.get(key);
+        if (indexedSections == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(indexedSections);
+    }
+
+    private static <K> void addToIndex(Map<K, Set<Section>> index, K key, Section section) {
+        index.computeIfAbsent(key, k -> new HashSet<>()).add(section);
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Section>> index, K key, Section section) {
+        var indexedSections = index.get(key);
+        if (indexedSections != null && indexedSections.remove(section) && indexedSections.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Adds a section to the catalog's lookup indexes. If two sections share a CRN, the first one indexed is returned
+     * by CRN, and the other is kept aside in case the first is removed.
+     * @param section the {@link Section} being added
+     */
+    private void index(Section section) {
+        var crn = section.getCourseRegistrationNumber();
+        if (sectionsByCRN.putIfAbsent(crn, section) != null) {
+            addToIndex(duplicatesByCRN, crn, section);
+        }
+        addToIndex(sectionsByLecturer, section.getLecturer(), section);
+        addToIndex(sectionsByLocation, section.getLocation(), section);
+        addToIndex(sectionsByCourse, section.getCourse(), section);
+        if (sectionsByMnemonic != null) {
+            addToIndex(sectionsByMnemonic, section.getCourse().getMnemonic(), section);
+        }
+        var bookings = bookingsByLocation.get(section.getLocation());
+        if (bookings != null) {
+            bookings.add(section);
+        }
+        var occupancy = occupancyByLecturer.get(section.getLecturer());
+        if (occupancy != null) {
+            occupancy.mark(section.getTimeSlot());
+        }
+    }
+
+    /**
+     * Removes a section from the catalog's lookup indexes.
+     * @param section the {@link Section} being removed
+     */
+    private void unindex(Section section) {
+        var crn = section.getCourseRegistrationNumber();
+        if (sectionsByCRN.remove(crn, section)) {
+            var duplicates = duplicatesByCRN.get(crn);
+            if (duplicates != null) {
+                var replacement = duplicates.iterator().next();
+                removeFromIndex(duplicatesByCRN, crn, replacement);
+                sectionsByCRN.put(crn, replacement);
+            }
+        } else {
+            removeFromIndex(duplicatesByCRN, crn, section);
+        }
+        removeFromIndex(sectionsByLecturer, section.getLecturer(), section);
+        removeFromIndex(sectionsByLocation, section.getLocation(), section);
+        removeFromIndex(sectionsByCourse, section.getCourse(), section);
+        if (sectionsByMnemonic != null) {
+            removeFromIndex(sectionsByMnemonic, section.getCourse().getMnemonic(), section);
+        }
+        var bookings = bookingsByLocation.get(section.getLocation());
+        if (bookings != null) {
+            bookings.remove(section);
+        }
+        var occupancy = occupancyByLecturer.get(section.getLecturer());
+        if (occupancy != null) {
+            occupancy.clear(section.getTimeSlot(), getSectionsByLecturer(section.getLecturer()));
+        }
     }
 }
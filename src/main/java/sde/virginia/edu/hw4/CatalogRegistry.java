@@ -0,0 +1,252 @@
+package sde.virginia.edu.hw4;
+
+import java.lang.ref.SoftReference;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Holds the {@link Catalog} for every {@link Semester}. The current and next semesters' catalogs are kept in memory.
+ * Catalogs for any other semester are loaded only when they are asked for, and are only softly held, so the garbage
+ * collector can evict them under memory pressure. An evicted catalog is loaded again the next time it is needed.
+ * Loading happens outside the registry's lock, and concurrent requests for the same semester share a single load.
+ * @see Catalog
+ * @see Term#ORDERED_TERMS
+ */
+public class CatalogRegistry {
+    /**
+     * Orders semesters chronologically, by year and then by {@link Term#ORDERED_TERMS term order}
+     */
+    public static final Comparator<Semester> CHRONOLOGICAL_ORDER = Comparator.comparingInt(Semester::year)
+            .thenComparingInt(semester -> Term.ORDERED_TERMS.indexOf(semester.term()));
+
+    /**
+     * Loads (or creates) the catalog for a semester that isn't in memory
+     */
+    private final Function<Semester, Catalog> loader;
+    /**
+     * The catalogs for the current and next semester
+     */
+    private final Map<Semester, Catalog> activeCatalogs;
+    /**
+     * The catalogs for every other semester that have been loaded
+     */
+    private final Map<Semester, SoftReference<Catalog>> historicalCatalogs;
+    /**
+     * The loads currently in progress, so concurrent requests for a semester wait on the same load
+     */
+    private final Map<Semester, CompletableFuture<Catalog>> pendingLoads;
+    /**
+     * The current semester
+     */
+    private Semester currentSemester;
+
+    /**
+     * Constructor
+     * @param currentSemester the current {@link Semester}
+     * @param loader a {@link Function} that loads the {@link Catalog} for a semester when it isn't in memory.
+     * @throws IllegalArgumentException if either input is null
+     */
+    public CatalogRegistry(Semester currentSemester, Function<Semester, Catalog> loader) {
+        if (currentSemester == null || loader == null) {
+            throw new IllegalArgumentException("Invalid CatalogRegistry initialization");
+        }
+        this.currentSemester = currentSemester;
+        this.loader = loader;
+        this.activeCatalogs = new HashMap<>();
+        this.historicalCatalogs = new HashMap<>();
+        this.pendingLoads = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the semester chronologically after another semester, i.e., FALL 2023 is followed by JANUARY 2024
+     * @param semester a {@link Semester}
+     * @return the following {@link Semester}
+     */
+    public static Semester nextSemester(Semester semester) {
+        var termIndex = Term.ORDERED_TERMS.indexOf(semester.term());
+        if (termIndex == Term.ORDERED_TERMS.size() - 1) {
+            return new Semester(Term.ORDERED_TERMS.get(0), semester.year() + 1);
+        }
+        return new Semester(Term.ORDERED_TERMS.get(termIndex + 1), semester.year());
+    }
+
+    /**
+     * Get the current {@link Semester}
+     */
+    public synchronized Semester getCurrentSemester() {
+        return currentSemester;
+    }
+
+    /**
+     * Changes the current semester, i.e., when a new semester begins. Catalogs that are no longer for the current or
+     * next semester become evictable.
+     * @param currentSemester the new current {@link Semester}
+     */
+    public synchronized void setCurrentSemester(Semester currentSemester) {
+        if (currentSemester == null) {
+            throw new IllegalArgumentException("Current semester cannot be null");
+        }
+        this.currentSemester = currentSemester;
+        var iterator = activeCatalogs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (!isActive(entry.getKey())) {
+                historicalCatalogs.put(entry.getKey(), new SoftReference<>(entry.getValue()));
+                iterator.remove();
+            }
+        }
+        purgeClearedReferences();
+    }
+
+    /**
+     * Get the catalog for the current semester
+     * @return the current semester's {@link Catalog}
+     */
+    public Catalog getCurrentCatalog() {
+        return getCatalog(getCurrentSemester());
+    }
+
+    /**
+     * Get the catalog for the semester after the current one
+     * @return the next semester's {@link Catalog}
+     */
+    public Catalog getNextCatalog() {
+        return getCatalog(nextSemester(getCurrentSemester()));
+    }
+
+    /**
+     * Get the catalog for a semester, loading it if it isn't in memory
+     * @param semester the {@link Semester}
+     * @return the semester's {@link Catalog}
+     * @throws IllegalStateException if the loader returns a catalog for a different semester
+     */
+    public Catalog getCatalog(Semester semester) {
+        var catalog = getLoadedCatalog(semester);
+        if (catalog != null) {
+            return catalog;
+        }
+        var load = new CompletableFuture<Catalog>();
+        var pending = pendingLoads.putIfAbsent(semester, load);
+        if (pending != null) {
+            return awaitLoad(pending);
+        }
+        try {
+            // another load may have finished between the first check and claiming this one
+            catalog = getLoadedCatalog(semester);
+            load.complete(catalog != null ? catalog : load(semester));
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingLoads.remove(semester, load);
+        }
+        return load.join();
+    }
+
+    /**
+     * Loads a semester's catalog without holding the registry's lock, then adds it to the registry. If a catalog for
+     * the semester was added while loading, that catalog is kept instead.
+     */
+    private Catalog load(Semester semester) {
+        var catalog = loader.apply(semester);
+        if (catalog == null || !semester.equals(catalog.getSemester())) {
+            throw new IllegalStateException("Loader did not return a catalog for " + semester);
+        }
+        synchronized (this) {
+            var loaded = getLoadedCatalog(semester);
+            if (loaded != null) {
+                return loaded;
+            }
+            put(catalog);
+            return catalog;
+        }
+    }
+
+    private static Catalog awaitLoad(CompletableFuture<Catalog> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the semester's catalog if it is in memory, otherwise null. Promotes a historical catalog that has
+     * become active and drops a reference whose catalog has been evicted.
+     */
+    private synchronized Catalog getLoadedCatalog(Semester semester) {
+        var catalog = activeCatalogs.get(semester);
+        if (catalog != null) {
+            return catalog;
+        }
+        var reference = historicalCatalogs.get(semester);
+        if (reference == null) {
+            return null;
+        }
+        catalog = reference.get();
+        if (catalog == null) {
+            historicalCatalogs.remove(semester);
+            return null;
+        }
+        put(catalog);
+        return catalog;
+    }
+
+    /**
+     * Adds a catalog to the registry, replacing any catalog for the same semester
+     * @param catalog the {@link Catalog}
+     */
+    public synchronized void put(Catalog catalog) {
+        var semester = catalog.getSemester();
+        if (isActive(semester)) {
+            historicalCatalogs.remove(semester);
+            activeCatalogs.put(semester, catalog);
+        } else {
+            historicalCatalogs.put(semester, new SoftReference<>(catalog));
+        }
+        purgeClearedReferences();
+    }
+
+    /**
+     * Removes the entries for historical catalogs that the garbage collector has evicted
+     */
+    private void purgeClearedReferences() {
+        historicalCatalogs.values().removeIf(reference -> reference.get() == null);
+    }
+
+    /**
+     * Finds a section by CRN in any semester's catalog, such as for looking up a {@link Transcript} entry
+     * @param semester the {@link Semester} the section was offered in
+     * @param courseRegistrationNumber the section's CRN
+     * @return an Optional of the matching Section. The optional is empty if no section with the CRN exists.
+     * @see Catalog#getSectionByCRN(int)
+     */
+    public Optional<Section> getSectionByCRN(Semester semester, int courseRegistrationNumber) {
+        return getCatalog(semester).getSectionByCRN(courseRegistrationNumber);
+    }
+
+    /**
+     * Returns true if the semester's catalog is currently in memory
+     * @param semester the {@link Semester}
+     */
+    public synchronized boolean isLoaded(Semester semester) {
+        if (activeCatalogs.containsKey(semester)) {
+            return true;
+        }
+        var reference = historicalCatalogs.get(semester);
+        return reference != null && reference.get() != null;
+    }
+
+    private boolean isActive(Semester semester) {
+        return semester.equals(currentSemester) || semester.equals(nextSemester(currentSemester));
+    }
+}
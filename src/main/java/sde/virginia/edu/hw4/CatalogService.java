@@ -1,17 +1,47 @@
 package sde.virginia.edu.hw4;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
+/**
+ * Adds and removes {@link Section sections} in a {@link Catalog}, enforcing the catalog's rules. Changes are made
+ * while holding the catalog's lock, so a {@link ConcurrentCatalog} can be shared with concurrent readers. Sections are
+ * closed through a {@link RegistrationService}, so closing can share that service's guards with registrations.
+ */
 public class CatalogService {
     private Catalog catalog;
+    private RegistrationService registrationService;
 
     /**
-     * Constructor
+     * Constructor. Sections are closed without any guards against registrations, so nothing may register or drop while
+     * {@link CatalogService#closeAllSection()} runs. Each student's {@link Schedule} is still updated by one thread at
+     * a time.
      * @param catalog
      */
     public CatalogService(Catalog catalog) {
+        this(catalog, new RegistrationService());
+    }
+
+    /**
+     * Constructor
+     * @param catalog the {@link Catalog} to manage
+     * @param registrationService the {@link RegistrationService} students register through. Sections are closed
+     *                            through it, i.e., a {@link ConcurrentRegistrationService} closes each section while
+     *                            holding the same locks its registrations take.
+     * @throws IllegalArgumentException if either input is null
+     */
+    public CatalogService(Catalog catalog, RegistrationService registrationService) {
+        if (catalog == null || registrationService == null) {
+            throw new IllegalArgumentException("Invalid CatalogService Initialization");
+        }
         this.catalog = catalog;
+        this.registrationService = registrationService;
     }
 
     /**
@@ -48,7 +78,26 @@ public class CatalogService {
          * At the time the section is added to the catalog, it's enrollment and wait-list must be empty (that is,
          * no students registered ahead of time).
          */
-        FAILED_ENROLLMENT_NOT_EMPTY
+        FAILED_ENROLLMENT_NOT_EMPTY,
+        /**
+         * Section not added because it was part of an {@link BulkAddMode#ALL_OR_NOTHING all-or-nothing} batch in which
+         * another section could not be added. The section itself broke no rules.
+         */
+        FAILED_BATCH_REJECTED
+    }
+
+    /**
+     * Describes how {@link CatalogService#addAll(List, BulkAddMode)} handles sections that break the rules
+     */
+    public enum BulkAddMode {
+        /**
+         * If any section in the batch cannot be added, no sections are added.
+         */
+        ALL_OR_NOTHING,
+        /**
+         * Every section that can be added is added, regardless of the others.
+         */
+        BEST_EFFORT
     }
 
     /**
@@ -76,15 +125,98 @@ public class CatalogService {
      * @see Catalog#getSemester()
      * @see Catalog#contains(Section)
      * @see Catalog#getSectionByCRN(int) 
-     * @see Location#equals(Object) 
-     * @see Section#overlapsWith(TimeSlot)
-     * @see Lecturer#equals(Object)
+     * @see Catalog#isLocationAvailable(Location, TimeSlot)
+     * @see Catalog#isLecturerAvailable(Lecturer, TimeSlot)
      * @see Section#getEnrollmentSize()
      * @see Section#getWaitListSize()
      */
     public AddSectionResult add(Section section) {
-        return null;
-        //TODO: implement and test
+        synchronized (catalog) {
+            var result = validate(section);
+            if (result == AddSectionResult.SUCCESSFUL) {
+                catalog.add(section);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Attempts to add a batch of sections to the course catalog, such as an entire semester's offerings. Each section
+     * must follow the same rules as {@link CatalogService#add(Section)}, both against the sections already in the
+     * catalog and against the sections earlier in the batch.<br>
+     * The batch is checked against a separate staging {@link Catalog} and then added to the catalog at once, so a
+     * {@link ConcurrentCatalog} publishes a single new snapshot for the whole batch.
+     * @param sections the sections to add, in priority order (when two sections in the batch conflict, the earlier
+     *                 one is added)
+     * @param mode whether to add the valid sections even if some sections are invalid
+     * @return a {@link List} with the {@link AddSectionResult} for each section, in the same order as sections. In
+     * {@link BulkAddMode#ALL_OR_NOTHING} mode, if any section fails, the sections that broke no rules are reported as
+     * {@link AddSectionResult#FAILED_BATCH_REJECTED}.
+     * @see CatalogService#add(Section)
+     * @see Catalog#addAll(Collection)
+     */
+    public List<AddSectionResult> addAll(List<Section> sections, BulkAddMode mode) {
+        synchronized (catalog) {
+            var staging = new Catalog(catalog.getSemester());
+            var catalogs = List.of(catalog, staging);
+            var results = new ArrayList<AddSectionResult>(sections.size());
+            var anyFailed = false;
+            for (Section section : sections) {
+                var result = validate(section, catalogs);
+                if (result == AddSectionResult.SUCCESSFUL) {
+                    staging.add(section);
+                } else {
+                    anyFailed = true;
+                }
+                results.add(result);
+            }
+
+            if (anyFailed && mode == BulkAddMode.ALL_OR_NOTHING) {
+                results.replaceAll(result -> result == AddSectionResult.SUCCESSFUL ?
+                        AddSectionResult.FAILED_BATCH_REJECTED : result);
+            } else {
+                catalog.addAll(staging.getSections());
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Checks a section against the rules in {@link CatalogService#add(Section)} without changing the catalog.
+     * @param section the section to check
+     * @return {@link AddSectionResult#SUCCESSFUL} if the section can be added, otherwise the reason it cannot.
+     */
+    private AddSectionResult validate(Section section) {
+        return validate(section, List.of(catalog));
+    }
+
+    /**
+     * Checks a section against the rules in {@link CatalogService#add(Section)}, treating the sections of all the
+     * given catalogs as already added.
+     * @param section the section to check
+     * @param catalogs the {@link Catalog}s the section must not conflict with
+     * @return {@link AddSectionResult#SUCCESSFUL} if the section can be added, otherwise the reason it cannot.
+     */
+    private AddSectionResult validate(Section section, List<Catalog> catalogs) {
+        if (!section.getSemester().equals(catalog.getSemester())) {
+            return AddSectionResult.FAILED_SEMESTER_MISMATCH;
+        }
+        if (catalogs.stream().anyMatch(c -> c.contains(section))) {
+            return AddSectionResult.FAILED_SECTION_ALREADY_EXISTS;
+        }
+        if (catalogs.stream().anyMatch(c -> c.getSectionByCRN(section.getCourseRegistrationNumber()).isPresent())) {
+            return AddSectionResult.FAILED_CRN_CONFLICT;
+        }
+        if (!catalogs.stream().allMatch(c -> c.isLocationAvailable(section.getLocation(), section.getTimeSlot()))) {
+            return AddSectionResult.FAILED_LOCATION_CONFLICT;
+        }
+        if (!catalogs.stream().allMatch(c -> c.isLecturerAvailable(section.getLecturer(), section.getTimeSlot()))) {
+            return AddSectionResult.FAILED_LECTURER_CONFLICT;
+        }
+        if (section.getEnrollmentSize() > 0 || section.getWaitListSize() > 0) {
+            return AddSectionResult.FAILED_ENROLLMENT_NOT_EMPTY;
+        }
+        return AddSectionResult.SUCCESSFUL;
     }
 
 
@@ -101,16 +233,97 @@ public class CatalogService {
      * @see Student#removeWaitListedSection(Section)
      */
     public void removeSection(Section section) {
-        //TODO: implement and test
+        synchronized (catalog) {
+            if (!catalog.contains(section)) {
+                throw new IllegalArgumentException("Section: " + section + " is not in the catalog");
+            }
+            for (Student student : section.getEnrolledStudents()) {
+                student.removeEnrolledSection(section);
+            }
+            for (Student student : section.getWaitListedStudents()) {
+                student.removeWaitListedSection(section);
+            }
+            catalog.remove(section);
+        }
     }
 
 
     /**
-     * Set all sections to closed enrollment. This method should be called at the add deadline each semester.
-     * @see Section#setEnrollmentStatus(EnrollmentStatus)
+     * Describes the result of {@link CatalogService#closeAllSection()}
+     * @param sectionsClosed the number of sections set to {@link EnrollmentStatus#CLOSED}
+     * @param waitListEntriesCleared the number of students removed from wait lists, counting a student once per
+     *                               section
+     * @param studentsUpdated the number of students whose {@link Schedule} was changed
+     * @param elapsed how long closing took
+     */
+    public record CloseAllSectionResult(int sectionsClosed, int waitListEntriesCleared, int studentsUpdated,
+                                        Duration elapsed) {}
+
+    /**
+     * Set all sections to closed enrollment and clears their wait lists, removing each wait-listed section from the
+     * student's {@link Schedule}. This method should be called at the add deadline each semester.
+     * @return a {@link CloseAllSectionResult} describing what was closed
+     * @see CatalogService#closeAllSection(IntConsumer)
+     */
+    public CloseAllSectionResult closeAllSection() {
+        return closeAllSection(sectionsClosed -> {});
+    }
+
+    /**
+     * Set all sections to closed enrollment and clears their wait lists, removing each wait-listed section from the
+     * student's {@link Schedule}. This method should be called at the add deadline each semester.<br>
+     * Sections are closed in parallel. If the {@link RegistrationService} is
+     * {@link RegistrationService#isThreadSafe() thread-safe}, each section is closed through
+     * {@link RegistrationService#closeSection(Section)}, so a {@link ConcurrentRegistrationService} or
+     * {@link SectionActorRegistrationService} keeps serving registrations while sections close. Otherwise, the
+     * wait-listed students are grouped by student once their sections are closed, so each student's {@link Schedule}
+     * is updated once, by one thread. The catalog itself is not locked, so a {@link ConcurrentCatalog} can still be
+     * read while sections are closing.
+     * @param progress called with the number of sections closed so far after each section is closed. This may be
+     *                 called from several threads at once.
+     * @return a {@link CloseAllSectionResult} describing what was closed
+     * @see RegistrationService#closeSection(Section)
      * @see EnrollmentStatus
      */
-    public void closeAllSection() {
-        //TODO: implement and test
+    public CloseAllSectionResult closeAllSection(IntConsumer progress) {
+        var start = System.nanoTime();
+        List<Section> sections;
+        synchronized (catalog) {
+            sections = new ArrayList<>(catalog.getSections());
+        }
+
+        var sectionsClosed = new AtomicInteger();
+        Map<Student, List<Section>> waitListedSectionsByStudent;
+        if (registrationService.isThreadSafe()) {
+            waitListedSectionsByStudent = sections.parallelStream()
+                    .flatMap(section -> {
+                        var waitListedStudents = registrationService.closeSection(section);
+                        progress.accept(sectionsClosed.incrementAndGet());
+                        return waitListedStudents.stream().map(student -> Map.entry(student, section));
+                    })
+                    .collect(Collectors.groupingByConcurrent(Map.Entry::getKey,
+                            Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+        } else {
+            waitListedSectionsByStudent = sections.parallelStream()
+                    .flatMap(section -> {
+                        section.setEnrollmentStatus(EnrollmentStatus.CLOSED);
+                        var waitListedStudents = section.clearWaitList();
+                        progress.accept(sectionsClosed.incrementAndGet());
+                        return waitListedStudents.stream().map(student -> Map.entry(student, section));
+                    })
+                    .collect(Collectors.groupingByConcurrent(Map.Entry::getKey,
+                            Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+
+            waitListedSectionsByStudent.entrySet().parallelStream().forEach(entry -> {
+                var student = entry.getKey();
+                for (Section section : entry.getValue()) {
+                    student.removeWaitListedSection(section);
+                }
+            });
+        }
+
+        var waitListEntriesCleared = waitListedSectionsByStudent.values().stream().mapToInt(List::size).sum();
+        return new CloseAllSectionResult(sectionsClosed.get(), waitListEntriesCleared,
+                waitListedSectionsByStudent.size(), Duration.ofNanos(System.nanoTime() - start));
     }
 }
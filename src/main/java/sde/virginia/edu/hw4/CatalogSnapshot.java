@@ -0,0 +1,399 @@
+package sde.virginia.edu.hw4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A compact, read-only binary image of a {@link Catalog}, used to restart quickly without rebuilding the catalog
+ * from its source data. A snapshot is {@link CatalogSnapshot#write(Catalog, Path) written} once, then
+ * {@link CatalogSnapshot#open(Path) opened} with a memory-mapped file. Opening only reads the header; each
+ * {@link Section} (and the {@link Course}, {@link Location} and {@link Lecturer} it uses) is built the first time it
+ * is asked for, and the same object is returned after that.<br>
+ * A snapshot describes the catalog's offerings, not its registrations: the sections it returns have the same
+ * capacities and {@link EnrollmentStatus} as when they were written, but empty enrollments and wait lists.
+ * <br><br>
+ * The file is a header followed by tables of fixed-width int records:
+ * <ul>
+ *     <li>strings - an offset table, followed by UTF-8 bytes</li>
+ *     <li>courses - id, mnemonic, course number, title, credit hours, first prerequisite, prerequisite count</li>
+ *     <li>prerequisites - course, minimum {@link Grade}</li>
+ *     <li>locations - building, room, room capacity</li>
+ *     <li>lecturers - id, computing id, first name, last name</li>
+ *     <li>sections, sorted by CRN - CRN, section number, course, location, lecturer, days, start hour, start
+ *     minute, end hour, end minute, enrollment capacity, wait list capacity, enrollment status</li>
+ * </ul>
+ * Strings, courses, locations and lecturers are referred to by their index in their table. A null string is -1.
+ */
+public class CatalogSnapshot {
+    private static final int MAGIC = 0x43415431; // "CAT1"
+    private static final int VERSION = 1;
+
+    private static final int COURSE_FIELDS = 7;
+    private static final int PREREQUISITE_FIELDS = 2;
+    private static final int LOCATION_FIELDS = 3;
+    private static final int LECTURER_FIELDS = 4;
+    private static final int SECTION_FIELDS = 13;
+    private static final int TABLE_COUNT = 6;
+    private static final int HEADER_SIZE = Integer.BYTES * (4 + 2 * TABLE_COUNT);
+
+    private static final int STRINGS = 0, COURSES = 1, PREREQUISITES = 2, LOCATIONS = 3, LECTURERS = 4,
+            SECTIONS = 5;
+
+    /**
+     * The mapped snapshot file
+     */
+    private final ByteBuffer buffer;
+    private final Semester semester;
+    /**
+     * The byte offset of each table
+     */
+    private final int[] tableOffsets;
+    /**
+     * The number of entries in each table
+     */
+    private final int[] tableCounts;
+
+    private final Course[] courses;
+    private final Location[] locations;
+    private final Lecturer[] lecturers;
+    private final Section[] sections;
+
+    private CatalogSnapshot(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " catalog snapshot");
+        }
+        this.buffer = buffer;
+        this.semester = new Semester(Term.values()[buffer.getInt(2 * Integer.BYTES)], buffer.getInt(3 * Integer.BYTES));
+        this.tableOffsets = new int[TABLE_COUNT];
+        this.tableCounts = new int[TABLE_COUNT];
+        for (int table = 0; table < TABLE_COUNT; table++) {
+            tableOffsets[table] = buffer.getInt((4 + 2 * table) * Integer.BYTES);
+            tableCounts[table] = buffer.getInt((5 + 2 * table) * Integer.BYTES);
+        }
+        this.courses = new Course[tableCounts[COURSES]];
+        this.locations = new Location[tableCounts[LOCATIONS]];
+        this.lecturers = new Lecturer[tableCounts[LECTURERS]];
+        this.sections = new Section[tableCounts[SECTIONS]];
+    }
+
+    /**
+     * Opens a snapshot file by memory-mapping it
+     * @param path the snapshot file
+     * @return the opened {@link CatalogSnapshot}
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a catalog snapshot
+     */
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(buffer);
+        }
+    }
+
+    /**
+     * Get the {@link Semester} of the snapshotted catalog
+     */
+    public Semester getSemester() {
+        return semester;
+    }
+
+    /**
+     * Get the number of sections in the snapshot
+     */
+    public int size() {
+        return sections.length;
+    }
+
+    /**
+     * Get a section by its position in the snapshot. Sections are ordered by CRN.
+     * @param index the position, from 0 to {@link CatalogSnapshot#size()} - 1
+     * @return the {@link Section}
+     */
+    public synchronized Section getSection(int index) {
+        if (sections[index] == null) {
+            sections[index] = readSection(index);
+        }
+        return sections[index];
+    }
+
+    /**
+     * Returns a section with the matching courseRegistrationNumber, building only that section.
+     * @return an Optional of the matching Section. The optional is empty if no section with the CRN exists.
+     */
+    public Optional<Section> getSectionByCRN(int courseRegistrationNumber) {
+        var low = 0;
+        var high = sections.length - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var crn = field(SECTIONS, SECTION_FIELDS, middle, 0);
+            if (crn < courseRegistrationNumber) {
+                low = middle + 1;
+            } else if (crn > courseRegistrationNumber) {
+                high = middle - 1;
+            } else {
+                return Optional.of(getSection(middle));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Builds a {@link Catalog} holding every section in the snapshot
+     * @return a new {@link Catalog}
+     */
+    public Catalog toCatalog() {
+        var catalog = new Catalog(semester);
+        for (int i = 0; i < sections.length; i++) {
+            catalog.add(getSection(i));
+        }
+        return catalog;
+    }
+
+    private Section readSection(int index) {
+        var days = EnumSet.noneOf(DayOfWeek.class);
+        var dayMask = field(SECTIONS, SECTION_FIELDS, index, 5);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((dayMask & (1 << day.ordinal())) != 0) {
+                days.add(day);
+            }
+        }
+        var timeSlot = TimeSlot.of(days,
+                field(SECTIONS, SECTION_FIELDS, index, 6), field(SECTIONS, SECTION_FIELDS, index, 7),
+                field(SECTIONS, SECTION_FIELDS, index, 8), field(SECTIONS, SECTION_FIELDS, index, 9));
+        return new Section(
+                field(SECTIONS, SECTION_FIELDS, index, 0),
+                field(SECTIONS, SECTION_FIELDS, index, 1),
+                getCourse(field(SECTIONS, SECTION_FIELDS, index, 2)),
+                semester,
+                getLocation(field(SECTIONS, SECTION_FIELDS, index, 3)),
+                timeSlot,
+                getLecturer(field(SECTIONS, SECTION_FIELDS, index, 4)),
+                field(SECTIONS, SECTION_FIELDS, index, 10),
+                field(SECTIONS, SECTION_FIELDS, index, 11),
+                new HashSet<>(), new WaitList(),
+                EnrollmentStatus.values()[field(SECTIONS, SECTION_FIELDS, index, 12)]);
+    }
+
+    private Course getCourse(int index) {
+        if (courses[index] == null) {
+            var prerequisite = new Prerequisite();
+            // memoize before reading prerequisites, in case courses require each other
+            courses[index] = new Course(
+                    field(COURSES, COURSE_FIELDS, index, 0),
+                    getString(field(COURSES, COURSE_FIELDS, index, 1)),
+                    getString(field(COURSES, COURSE_FIELDS, index, 2)),
+                    getString(field(COURSES, COURSE_FIELDS, index, 3)),
+                    field(COURSES, COURSE_FIELDS, index, 4),
+                    prerequisite);
+            var first = field(COURSES, COURSE_FIELDS, index, 5);
+            var count = field(COURSES, COURSE_FIELDS, index, 6);
+            for (int i = first; i < first + count; i++) {
+                prerequisite.add(getCourse(field(PREREQUISITES, PREREQUISITE_FIELDS, i, 0)),
+                        Grade.values()[field(PREREQUISITES, PREREQUISITE_FIELDS, i, 1)]);
+            }
+        }
+        return courses[index];
+    }
+
+    private Location getLocation(int index) {
+        if (locations[index] == null) {
+            locations[index] = Location.of(
+                    getString(field(LOCATIONS, LOCATION_FIELDS, index, 0)),
+                    getString(field(LOCATIONS, LOCATION_FIELDS, index, 1)),
+                    field(LOCATIONS, LOCATION_FIELDS, index, 2));
+        }
+        return locations[index];
+    }
+
+    private Lecturer getLecturer(int index) {
+        if (lecturers[index] == null) {
+            lecturers[index] = new Lecturer(
+                    field(LECTURERS, LECTURER_FIELDS, index, 0),
+                    getString(field(LECTURERS, LECTURER_FIELDS, index, 1)),
+                    getString(field(LECTURERS, LECTURER_FIELDS, index, 2)),
+                    getString(field(LECTURERS, LECTURER_FIELDS, index, 3)));
+        }
+        return lecturers[index];
+    }
+
+    private String getString(int index) {
+        if (index < 0) {
+            return null;
+        }
+        var offsetTable = tableOffsets[STRINGS];
+        var dataStart = offsetTable + (tableCounts[STRINGS] + 1) * Integer.BYTES;
+        var start = buffer.getInt(offsetTable + index * Integer.BYTES);
+        var end = buffer.getInt(offsetTable + (index + 1) * Integer.BYTES);
+        var bytes = new byte[end - start];
+        buffer.get(dataStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads an int field of a fixed-width record
+     */
+    private int field(int table, int fieldsPerRecord, int record, int field) {
+        return buffer.getInt(tableOffsets[table] + (record * fieldsPerRecord + field) * Integer.BYTES);
+    }
+
+    /**
+     * Writes a catalog to a snapshot file, replacing the file if it exists.
+     * @param catalog the {@link Catalog} to write
+     * @param path the file to write to
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Catalog catalog, Path path) throws IOException {
+        var writer = new Writer();
+        var sortedSections = new ArrayList<>(catalog.getSections());
+        sortedSections.sort(Comparator.comparingInt(Section::getCourseRegistrationNumber));
+        for (Section section : sortedSections) {
+            writer.addSection(section);
+        }
+        var buffer = writer.toBuffer(catalog.getSemester());
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Collects the tables of a snapshot, giving each distinct object an index the first time it is seen
+     */
+    private static class Writer {
+        private final Map<String, Integer> stringIndexes = new HashMap<>();
+        private final List<byte[]> strings = new ArrayList<>();
+        private final Map<Course, Integer> courseIndexes = new HashMap<>();
+        private final List<int[]> courses = new ArrayList<>();
+        private final List<int[]> prerequisites = new ArrayList<>();
+        private final Map<Location, Integer> locationIndexes = new HashMap<>();
+        private final List<int[]> locations = new ArrayList<>();
+        private final Map<Lecturer, Integer> lecturerIndexes = new HashMap<>();
+        private final List<int[]> lecturers = new ArrayList<>();
+        private final List<int[]> sections = new ArrayList<>();
+
+        void addSection(Section section) {
+            var timeSlot = section.getTimeSlot();
+            var dayMask = 0;
+            for (DayOfWeek day : timeSlot.days()) {
+                dayMask |= 1 << day.ordinal();
+            }
+            sections.add(new int[]{
+                    section.getCourseRegistrationNumber(), section.getSectionNumber(),
+                    addCourse(section.getCourse()), addLocation(section.getLocation()),
+                    addLecturer(section.getLecturer()), dayMask,
+                    timeSlot.startTimeHour(), timeSlot.startTimeMinute(),
+                    timeSlot.endTimeHour(), timeSlot.endTimeMinute(),
+                    section.getEnrollmentCapacity(), section.getWaitListCapacity(),
+                    section.getEnrollmentStatus().ordinal()});
+        }
+
+        private int addCourse(Course course) {
+            var index = courseIndexes.get(course);
+            if (index != null) {
+                return index;
+            }
+            index = courses.size();
+            courseIndexes.put(course, index);
+            var record = new int[]{course.getId(), addString(course.getMnemonic()),
+                    addString(course.getCourseNumber()), addString(course.getTitle()), course.getCreditHours(),
+                    0, 0};
+            courses.add(record);
+            var prerequisite = course.getPrerequisite();
+            var required = new ArrayList<int[]>();
+            for (Course requiredCourse : prerequisite.getPrerequisiteCourses()) {
+                required.add(new int[]{addCourse(requiredCourse),
+                        prerequisite.getMinimumGrade(requiredCourse).ordinal()});
+            }
+            record[5] = prerequisites.size();
+            record[6] = required.size();
+            prerequisites.addAll(required);
+            return index;
+        }
+
+        private int addLocation(Location location) {
+            var index = locationIndexes.get(location);
+            if (index == null) {
+                index = locations.size();
+                locationIndexes.put(location, index);
+                locations.add(new int[]{addString(location.building()), addString(location.room()),
+                        location.roomCapacity()});
+            }
+            return index;
+        }
+
+        private int addLecturer(Lecturer lecturer) {
+            var index = lecturerIndexes.get(lecturer);
+            if (index == null) {
+                index = lecturers.size();
+                lecturerIndexes.put(lecturer, index);
+                lecturers.add(new int[]{lecturer.getId(), addString(lecturer.getComputingId()),
+                        addString(lecturer.getFirstName()), addString(lecturer.getLastName())});
+            }
+            return index;
+        }
+
+        private int addString(String string) {
+            if (string == null) {
+                return -1;
+            }
+            var index = stringIndexes.get(string);
+            if (index == null) {
+                index = strings.size();
+                stringIndexes.put(string, index);
+                strings.add(string.getBytes(StandardCharsets.UTF_8));
+            }
+            return index;
+        }
+
+        ByteBuffer toBuffer(Semester semester) {
+            var stringBytes = strings.stream().mapToInt(bytes -> bytes.length).sum();
+            var tables = List.of(courses, prerequisites, locations, lecturers, sections);
+            var size = HEADER_SIZE + (strings.size() + 1) * Integer.BYTES + stringBytes;
+            for (List<int[]> table : tables) {
+                size += table.stream().mapToInt(record -> record.length).sum() * Integer.BYTES;
+            }
+
+            var buffer = ByteBuffer.allocate(size);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(semester.term().ordinal()).putInt(semester.year());
+            var offset = HEADER_SIZE;
+            buffer.putInt(offset).putInt(strings.size());
+            offset += (strings.size() + 1) * Integer.BYTES + stringBytes;
+            for (List<int[]> table : tables) {
+                buffer.putInt(offset).putInt(table.size());
+                offset += table.stream().mapToInt(record -> record.length).sum() * Integer.BYTES;
+            }
+
+            var stringOffset = 0;
+            for (byte[] bytes : strings) {
+                buffer.putInt(stringOffset);
+                stringOffset += bytes.length;
+            }
+            buffer.putInt(stringOffset);
+            strings.forEach(buffer::put);
+            for (List<int[]> table : tables) {
+                for (int[] record : table) {
+                    for (int field : record) {
+                        buffer.putInt(field);
+                    }
+                }
+            }
+            return buffer.flip();
+        }
+    }
+}
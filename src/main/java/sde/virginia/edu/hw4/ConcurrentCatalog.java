@@ -0,0 +1,167 @@
+package sde.virginia.edu.hw4;
+
+import java.time.DayOfWeek;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A thread-safe {@link Catalog}. Writers are serialized on the catalog and publish a new immutable snapshot of the
+ * sections after every change, so readers of {@link ConcurrentCatalog#getSections()},
+ * {@link ConcurrentCatalog#contains(Section)}, {@link ConcurrentCatalog#getSectionByCRN(int)},
+ * {@link ConcurrentCatalog#getSectionsByLecturer(Lecturer)} and
+ * {@link ConcurrentCatalog#search(SectionQuery, int, int)} never take a lock and always see a consistent version of
+ * the catalog.<br>
+ * The other index queries (by location and course, and conflict checks) lock the catalog, and return copies rather
+ * than views.
+ * @see CatalogService
+ */
+public class ConcurrentCatalog extends Catalog {
+    /**
+     * An immutable version of the catalog's sections, along with the indexes searches use
+     * @param sections the sections in the catalog
+     * @param sectionsByCRN the sections in the catalog by CRN
+     * @param sectionsByLecturer the sections in the catalog, grouped by their {@link Lecturer}
+     * @param sectionsByMnemonic the sections in the catalog, grouped by their course mnemonic
+     */
+    private record Snapshot(Set<Section> sections, Map<Integer, Section> sectionsByCRN,
+                            Map<Lecturer, Set<Section>> sectionsByLecturer,
+                            Map<String, Set<Section>> sectionsByMnemonic) {}
+
+    /**
+     * The most recently published version of the catalog
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructor
+     * @param semester - the {@link Semester}
+     */
+    public ConcurrentCatalog(Semester semester) {
+        super(semester);
+        publish();
+    }
+
+    /**
+     * Get the Sections in this semester
+     * @return an immutable snapshot of the {@link Set} of {@link Section}s in this catalog. Later changes to the
+     * catalog are not reflected in the returned set.
+     */
+    @Override
+    public Set<Section> getSections() {
+        return snapshot.sections();
+    }
+
+    @Override
+    public synchronized boolean add(Section section) {
+        if (!super.add(section)) {
+            return false;
+        }
+        publish();
+        return true;
+    }
+
+    /**
+     * Adds several sections to the Catalog, publishing a single new snapshot once they are all added.
+     * @see Catalog#addAll(Collection)
+     */
+    @Override
+    public synchronized boolean addAll(Collection<Section> sections) {
+        var changed = false;
+        try {
+            for (Section section : sections) {
+                changed |= super.add(section);
+            }
+        } finally {
+            if (changed) {
+                publish();
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean remove(Section section) {
+        if (!super.remove(section)) {
+            return false;
+        }
+        publish();
+        return true;
+    }
+
+    @Override
+    public boolean contains(Section section) {
+        return snapshot.sections().contains(section);
+    }
+
+    @Override
+    public Optional<Section> getSectionByCRN(int courseRegistrationNumber) {
+        return Optional.ofNullable(snapshot.sectionsByCRN().get(courseRegistrationNumber));
+    }
+
+    @Override
+    public Set<Section> getSectionsByLecturer(Lecturer lecturer) {
+        return snapshot.sectionsByLecturer().getOrDefault(lecturer, Set.of());
+    }
+
+    @Override
+    public synchronized Set<Section> getSectionsByLocation(Location location) {
+        return Set.copyOf(super.getSectionsByLocation(location));
+    }
+
+    @Override
+    public synchronized Set<Section> getSectionsByCourse(Course course) {
+        return Set.copyOf(super.getSectionsByCourse(course));
+    }
+
+    @Override
+    public synchronized boolean isLocationAvailable(Location location, TimeSlot timeSlot) {
+        return super.isLocationAvailable(location, timeSlot);
+    }
+
+    @Override
+    public synchronized List<TimeSlot> getFreeWindows(Location location, DayOfWeek day) {
+        return super.getFreeWindows(location, day);
+    }
+
+    @Override
+    public synchronized boolean isLecturerAvailable(Lecturer lecturer, TimeSlot timeSlot) {
+        return super.isLecturerAvailable(lecturer, timeSlot);
+    }
+
+    @Override
+    public SearchPage search(SectionQuery query, int cursor, int pageSize) {
+        var current = snapshot;
+        return search(query, cursor, pageSize, current.sections(), current.sectionsByLecturer(),
+                current.sectionsByMnemonic());
+    }
+
+    /**
+     * Publishes the current state of the catalog as a new snapshot. Must be called while holding the catalog's lock.
+     */
+    private void publish() {
+        var sections = Set.copyOf(super.getSections());
+        var sectionsByCRN = new HashMap<Integer, Section>();
+        var sectionsByLecturer = new HashMap<Lecturer, Set<Section>>();
+        var sectionsByMnemonic = new HashMap<String, Set<Section>>();
+        for (Section section : sections) {
+            var crn = section.getCourseRegistrationNumber();
+            sectionsByCRN.computeIfAbsent(crn, key -> super.getSectionByCRN(key).orElseThrow());
+            sectionsByLecturer.computeIfAbsent(section.getLecturer(), key -> new HashSet<>()).add(section);
+            sectionsByMnemonic.computeIfAbsent(section.getCourse().getMnemonic(), key -> new HashSet<>())
+                    .add(section);
+        }
+        snapshot = new Snapshot(sections, Map.copyOf(sectionsByCRN), freeze(sectionsByLecturer),
+                freeze(sectionsByMnemonic));
+    }
+
+    private static <K> Map<K, Set<Section>> freeze(Map<K, Set<Section>> index) {
+        var frozen = new HashMap<K, Set<Section>>();
+        index.forEach((key, indexedSections) -> frozen.put(key, Set.copyOf(indexedSections)));
+        return Map.copyOf(frozen);
+    }
+}
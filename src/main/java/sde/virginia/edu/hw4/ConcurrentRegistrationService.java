@@ -0,0 +1,242 @@
+package sde.virginia.edu.hw4;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe {@link RegistrationService}. Each {@link Section} and each {@link Student} has its own lock, and an
+ * operation holds the locks of exactly the sections and students it changes, so registrations for different
+ * sections by different students never contend.<br>
+ * To avoid deadlock, locks are always taken in the same order: sections by CRN, then students by id.<br>
+ * Requests for closed or full sections are turned away holding only the student's lock, so a popular section's lock
+ * is only contended by requests that can still succeed.
+ */
+public class ConcurrentRegistrationService extends RegistrationService {
+    /**
+     * A lock per section, keyed by CRN
+     */
+    private final Map<Integer, ReentrantLock> sectionLocks = new ConcurrentHashMap<>();
+    /**
+     * A lock per student, keyed by student id
+     */
+    private final Map<Long, ReentrantLock> studentLocks = new ConcurrentHashMap<>();
+    /**
+     * Promotes wait listed students in the background, or null to promote as part of each drop
+     */
+    private final WaitListPromotionPipeline promotionPipeline;
+    /**
+     * Seats freed by drops and held for the wait list until the pipeline promotes, keyed by CRN. Only changed while
+     * holding the section's lock.
+     */
+    private final Map<Integer, Integer> heldSeats = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a service that promotes wait listed students as part of each drop.
+     */
+    public ConcurrentRegistrationService() {
+        this.promotionPipeline = null;
+    }
+
+    /**
+     * Creates a service that promotes wait listed students in the background with a
+     * {@link WaitListPromotionPipeline}, keeping promotion off the drop's critical path. A seat freed in a section
+     * with a wait list is held for the wait list until its promotion runs, so a new registrant cannot take it first.
+     * @param promotionExecutor the {@link Executor} promotions run on
+     */
+    public ConcurrentRegistrationService(Executor promotionExecutor) {
+        this.promotionPipeline = new WaitListPromotionPipeline(this::promoteFromWaitList, promotionExecutor);
+    }
+
+    @Override
+    public RegistrationResult register(Student student, Section section) {
+        if (!section.isEnrollmentOpen() || section.isFull()) {
+            var studentLock = studentLocks.computeIfAbsent(student.getId(), key -> new ReentrantLock());
+            studentLock.lock();
+            try {
+                var earlyResult = rejectEarly(student, section);
+                if (earlyResult.isPresent()) {
+                    return earlyResult.get();
+                }
+            } finally {
+                studentLock.unlock();
+            }
+        }
+        return withLocks(List.of(section), () -> List.of(student), () -> super.register(student, section));
+    }
+
+    /**
+     * Registers a cart while holding the locks of every section in the cart and of the student, so the whole cart
+     * is checked and committed as one step.
+     * @see RegistrationService#registerAll(Student, List)
+     */
+    @Override
+    public List<RegistrationResult> registerAll(Student student, List<Section> cart) {
+        return withLocks(cart, () -> List.of(student), () -> super.registerAll(student, cart));
+    }
+
+    @Override
+    public boolean drop(Student student, Section section) {
+        if (promotionPipeline != null) {
+            return withLocks(List.of(section), () -> List.of(student), () -> super.drop(student, section));
+        }
+        return withLocks(List.of(section), () -> withWaitList(student, section), () -> super.drop(student, section));
+    }
+
+    /**
+     * Swaps while holding the locks of both sections, the student, and everyone on the old section's wait list, so
+     * the seat the student vacates is filled inside the same step, even in pipeline mode.
+     * @see RegistrationService#swap(Student, Section, Section)
+     */
+    @Override
+    public RegistrationResult swap(Student student, Section oldSection, Section newSection) {
+        return withLocks(List.of(oldSection, newSection), () -> withWaitList(student, oldSection),
+                () -> super.swap(student, oldSection, newSection));
+    }
+
+    /**
+     * Promotes right away, or in pipeline mode, holds the freed seat for the wait list and queues the section for
+     * promotion. If the pipeline's executor rejects the promotion, the held seats are given back to the section, since
+     * the wait listed students' locks are not held here. Called while holding the section's lock.
+     */
+    @Override
+    protected void seatReleased(Section section) {
+        if (promotionPipeline == null) {
+            super.seatReleased(section);
+            return;
+        }
+        if (!section.getWaitListedStudents().isEmpty() && section.tryReserveEnrollment()) {
+            heldSeats.merge(section.getCourseRegistrationNumber(), 1, Integer::sum);
+        }
+        if (!promotionPipeline.submit(section)) {
+            // nothing will promote the wait list, so the held seats go back to the section
+            releaseHeldSeats(section);
+        }
+    }
+
+    @Override
+    public List<Student> promoteFromWaitList(Section section) {
+        return withLocks(List.of(section), () -> new ArrayList<>(section.getWaitListedStudents()),
+                () -> super.promoteFromWaitList(section));
+    }
+
+    /**
+     * Gives any seats held for the wait list back to the section, then fills the free seats from the wait list.
+     * Called while holding the locks of the section and its wait listed students.
+     * @see RegistrationService#promoteFromWaitList(Section)
+     */
+    @Override
+    protected List<Student> fillFromWaitList(Section section) {
+        releaseHeldSeats(section);
+        return super.fillFromWaitList(section);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Closes the section while holding the locks of the section and its wait listed students, giving back any seats
+     * held for the wait list.
+     * @see RegistrationService#closeSection(Section)
+     */
+    @Override
+    public List<Student> closeSection(Section section) {
+        return withLocks(List.of(section), () -> new ArrayList<>(section.getWaitListedStudents()), () -> {
+            releaseHeldSeats(section);
+            return super.closeSection(section);
+        });
+    }
+
+    /**
+     * Gives the seats held for a section's wait list back to the section. Must be called while holding the section's
+     * lock.
+     */
+    private void releaseHeldSeats(Section section) {
+        var held = heldSeats.remove(section.getCourseRegistrationNumber());
+        for (int i = 0; held != null && i < held; i++) {
+            section.releaseEnrollment();
+        }
+    }
+
+    /**
+     * Gets the pipeline promoting wait listed students in the background
+     * @return the {@link WaitListPromotionPipeline}, or empty if students are promoted as part of each drop
+     */
+    public Optional<WaitListPromotionPipeline> getPromotionPipeline() {
+        return Optional.ofNullable(promotionPipeline);
+    }
+
+    /**
+     * Checks the registration failures that do not need the section's lock, in the same order as
+     * {@link RegistrationService#register(Student, Section)}. Must be called while holding the student's lock.
+     * @return the failure, or empty if the request has to be decided under the section's lock.
+     * @see Section#isFull()
+     */
+    private static Optional<RegistrationResult> rejectEarly(Student student, Section section) {
+        var course = section.getCourse();
+        if (student.isEnrolledInCourse(course) || student.isWaitListedInCourse(course)) {
+            return Optional.of(RegistrationResult.FAILED_ALREADY_IN_COURSE);
+        }
+        if (!section.isEnrollmentOpen()) {
+            return Optional.of(RegistrationResult.FAILED_ENROLLMENT_CLOSED);
+        }
+        if (section.isFull()) {
+            return Optional.of(RegistrationResult.FAILED_SECTION_FULL);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The students whose schedules a drop from a section may touch: the given student, and every student on the
+     * wait list, since any of them may be promoted. Must be called while holding the section's lock.
+     */
+    protected static List<Student> withWaitList(Student student, Section section) {
+        var students = new ArrayList<Student>(section.getWaitListedStudents());
+        students.add(student);
+        return students;
+    }
+
+    /**
+     * Runs an action while holding the locks of some sections and students. Section locks are taken first, in CRN
+     * order, and then the students are determined and their locks are taken in id order.
+     * @param sections the {@link Section}s to lock
+     * @param students supplies the {@link Student}s to lock, once the sections are locked
+     * @param action the action to run
+     * @return the result of the action
+     */
+    protected <T> T withLocks(Collection<Section> sections, Supplier<Collection<Student>> students,
+                              Supplier<T> action) {
+        var heldLocks = new ArrayList<ReentrantLock>();
+        try {
+            sections.stream()
+                    .map(Section::getCourseRegistrationNumber)
+                    .distinct()
+                    .sorted()
+                    .forEach(crn -> lock(sectionLocks.computeIfAbsent(crn, key -> new ReentrantLock()), heldLocks));
+            students.get().stream()
+                    .map(Student::getId)
+                    .distinct()
+                    .sorted(Comparator.naturalOrder())
+                    .forEach(id -> lock(studentLocks.computeIfAbsent(id, key -> new ReentrantLock()), heldLocks));
+            return action.get();
+        } finally {
+            for (int i = heldLocks.size() - 1; i >= 0; i--) {
+                heldLocks.get(i).unlock();
+            }
+        }
+    }
+
+    private static void lock(ReentrantLock lock, List<ReentrantLock> heldLocks) {
+        lock.lock();
+        heldLocks.add(lock);
+    }
+}
@@ -0,0 +1,136 @@
+package sde.virginia.edu.hw4;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A snapshot of everything registration checks need to know about a {@link Student}: their probation status and
+ * credit limit, the credit hours on their {@link Schedule}, and their best {@link Grade} in each {@link Course} on
+ * their {@link Transcript}. Building a profile reads the whole transcript once; afterward each check is a field read
+ * or a single map lookup.<br>
+ * A profile records the schedule and transcript versions it was built from. {@link EligibilityProfile#refresh(Student)}
+ * rebuilds only the parts that have changed since, so grades posted in the middle of a registration window are
+ * picked up without rereading the transcript on every registration.
+ * @see Student#getEligibilityProfile()
+ */
+public class EligibilityProfile {
+    private final long transcriptVersion;
+    private final long scheduleVersion;
+    private final boolean onProbation;
+    private final int creditLimit;
+    /**
+     * Credit hours of the sections the student is enrolled in
+     */
+    private final int enrolledCreditHours;
+    /**
+     * Credit hours of the sections the student is enrolled or wait listed in
+     */
+    private final int registeredCreditHours;
+    /**
+     * The best grade for each course on the student's transcript
+     */
+    private final Map<Course, Grade> bestGrades;
+
+    private EligibilityProfile(long transcriptVersion, long scheduleVersion, boolean onProbation, int creditLimit,
+                               int enrolledCreditHours, int registeredCreditHours, Map<Course, Grade> bestGrades) {
+        this.transcriptVersion = transcriptVersion;
+        this.scheduleVersion = scheduleVersion;
+        this.onProbation = onProbation;
+        this.creditLimit = creditLimit;
+        this.enrolledCreditHours = enrolledCreditHours;
+        this.registeredCreditHours = registeredCreditHours;
+        this.bestGrades = bestGrades;
+    }
+
+    /**
+     * Builds a profile from a student's current schedule and transcript.
+     * @param student the {@link Student} to profile
+     * @return a new {@link EligibilityProfile}
+     */
+    public static EligibilityProfile of(Student student) {
+        var bestGrades = new HashMap<Course, Grade>();
+        var byPrerequisiteScore = Comparator.comparing(Grade::getPrerequisiteScore);
+        for (Section section : student.getTranscriptSections()) {
+            bestGrades.merge(section.getCourse(), student.getGrade(section),
+                    (current, grade) -> byPrerequisiteScore.compare(grade, current) > 0 ? grade : current);
+        }
+        var onProbation = student.isOnProbation();
+        var creditLimit = onProbation ? Schedule.PROBATION_CREDIT_LIMIT : Schedule.DEFAULT_CREDIT_LIMIT;
+        return withSchedule(student, student.getTranscriptVersion(), onProbation, creditLimit,
+                Collections.unmodifiableMap(bestGrades));
+    }
+
+    private static EligibilityProfile withSchedule(Student student, long transcriptVersion, boolean onProbation,
+                                                   int creditLimit, Map<Course, Grade> bestGrades) {
+        return new EligibilityProfile(transcriptVersion, student.getScheduleVersion(), onProbation, creditLimit,
+                student.getEnrolledCreditHours(), student.getTotalCreditHours(), bestGrades);
+    }
+
+    /**
+     * Brings this profile up to date with a student's schedule and transcript.
+     * @param student the {@link Student} this profile was built for
+     * @return this profile if nothing has changed, otherwise a new profile. If only the schedule changed, the
+     * transcript-derived values are reused.
+     */
+    public EligibilityProfile refresh(Student student) {
+        if (transcriptVersion != student.getTranscriptVersion()) {
+            return of(student);
+        }
+        if (scheduleVersion != student.getScheduleVersion()) {
+            return withSchedule(student, transcriptVersion, onProbation, creditLimit, bestGrades);
+        }
+        return this;
+    }
+
+    /**
+     * Checks whether this profile reflects a student's current schedule and transcript
+     * @param student the {@link Student} this profile was built for
+     * @return true if neither the schedule nor the transcript has changed since this profile was built
+     */
+    public boolean isCurrentFor(Student student) {
+        return transcriptVersion == student.getTranscriptVersion() && scheduleVersion == student.getScheduleVersion();
+    }
+
+    /**
+     * @see Student#isOnProbation()
+     */
+    public boolean isOnProbation() {
+        return onProbation;
+    }
+
+    /**
+     * @see Student#getCreditLimit()
+     */
+    public int getCreditLimit() {
+        return creditLimit;
+    }
+
+    /**
+     * Gets the credit hours of the sections the student is enrolled in
+     */
+    public int getEnrolledCreditHours() {
+        return enrolledCreditHours;
+    }
+
+    /**
+     * Gets the credit hours of the sections the student is enrolled or wait listed in. This is the total that counts
+     * against the credit limit.
+     */
+    public int getRegisteredCreditHours() {
+        return registeredCreditHours;
+    }
+
+    /**
+     * Gets the best grade the student has for a course
+     * @param course the {@link Course} to get the grade for
+     * @return the best {@link Grade} by prerequisite score, or {@link Optional#empty()} if the student hasn't taken
+     * the course.
+     * @see Student#getBestGrade(Course)
+     */
+    public Optional<Grade> getBestGrade(Course course) {
+        return Optional.ofNullable(bestGrades.get(course));
+    }
+}
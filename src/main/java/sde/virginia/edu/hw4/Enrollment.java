@@ -1,6 +1,5 @@
 package sde.virginia.edu.hw4;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -17,7 +16,7 @@ public class Enrollment {
     private EnrollmentStatus enrollmentStatus;
 
     public Enrollment(int enrollmentCapacity, int waitListCapacity) {
-        this(enrollmentCapacity, waitListCapacity, new HashSet<>(), new ArrayList<>(), EnrollmentStatus.OPEN);
+        this(enrollmentCapacity, waitListCapacity, new HashSet<>(), new WaitList(), EnrollmentStatus.OPEN);
     }
 
     protected Enrollment(int enrollmentCapacity, int waitListCapacity,
@@ -0,0 +1,146 @@
+package sde.virginia.edu.hw4;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the results of requests by request id, so a retried request gets the original result instead of being
+ * processed again. Each id is remembered for a fixed time to live, and the cache holds at most a fixed number of ids;
+ * when it is full, the oldest id is forgotten first.<br>
+ * If a retry arrives while the original request is still running, the retry waits for the original's result. A
+ * request that throws is forgotten, so its retry runs again, and any retries already waiting get the same exception.
+ * <br>
+ * Requests with different ids look up and record their results concurrently. Only removing expired or excess ids
+ * takes a lock, and only when there is something to remove.
+ * @param <T> the type of result
+ */
+public class IdempotencyCache<T> {
+    /**
+     * The default number of request ids remembered
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 250_000;
+    /**
+     * The default time a request id is remembered
+     */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final int maxEntries;
+    private final long timeToLiveMillis;
+    private final Clock clock;
+    /**
+     * Results by request id
+     */
+    private final ConcurrentHashMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    /**
+     * Every entry added, in insertion order. Since every entry lives for the same time, insertion order is also
+     * expiration order. Entries that were forgotten or replaced stay here until they reach the front.
+     */
+    private final ConcurrentLinkedQueue<Insertion<T>> insertions = new ConcurrentLinkedQueue<>();
+
+    private record Entry<T>(CompletableFuture<T> result, long expiresAtMillis) {}
+
+    private record Insertion<T>(String requestId, Entry<T> entry) {}
+
+    /**
+     * Creates a cache with the {@link IdempotencyCache#DEFAULT_MAX_ENTRIES default size} and
+     * {@link IdempotencyCache#DEFAULT_TIME_TO_LIVE default time to live}
+     */
+    public IdempotencyCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TIME_TO_LIVE, Clock.systemUTC());
+    }
+
+    /**
+     * @param maxEntries the most request ids remembered at once
+     * @param timeToLive how long a request id is remembered
+     * @param clock the {@link Clock} used to expire request ids
+     * @throws IllegalArgumentException if maxEntries is not positive or the time to live is not positive
+     */
+    public IdempotencyCache(int maxEntries, Duration timeToLive, Clock clock) {
+        if (maxEntries <= 0 || timeToLive == null || timeToLive.isNegative() || timeToLive.isZero() || clock == null) {
+            throw new IllegalArgumentException("Invalid IdempotencyCache Initialization");
+        }
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Runs a request, unless a request with the same id has already run and is still remembered.
+     * @param requestId the request's id, shared by the original request and its retries
+     * @param request the request to run
+     * @return the result of the request, or the result of the original request if this is a retry
+     */
+    public T execute(String requestId, Supplier<T> request) {
+        if (requestId == null) {
+            throw new IllegalArgumentException("Request id cannot be null");
+        }
+        var now = clock.millis();
+        removeExpired(now);
+        var created = new Entry<T>(new CompletableFuture<>(), now + timeToLiveMillis);
+        var entry = entries.compute(requestId, (id, existing) ->
+                existing == null || existing.expiresAtMillis() <= now ? created : existing);
+        var result = entry.result();
+        if (entry == created) {
+            insertions.add(new Insertion<>(requestId, created));
+            removeExpired(now);
+            try {
+                result.complete(request.get());
+            } catch (Throwable e) {
+                entries.remove(requestId, created);
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Forgets a request id, so the next request with that id runs again.
+     * @param requestId the request id to forget
+     */
+    public void forget(String requestId) {
+        entries.remove(requestId);
+    }
+
+    /**
+     * Gets the number of request ids currently remembered, including any that have expired but not been removed yet
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes expired entries, then the oldest entries until the cache is back within its maximum size
+     */
+    private void removeExpired(long now) {
+        if (!isRemovable(insertions.peek(), now)) {
+            return;
+        }
+        synchronized (insertions) {
+            Insertion<T> eldest;
+            while (isRemovable(eldest = insertions.peek(), now)) {
+                insertions.poll();
+                entries.remove(eldest.requestId(), eldest.entry());
+            }
+        }
+    }
+
+    private boolean isRemovable(Insertion<T> eldest, long now) {
+        return eldest != null && (eldest.entry().expiresAtMillis() <= now || entries.size() > maxEntries);
+    }
+}
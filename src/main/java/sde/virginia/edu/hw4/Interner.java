@@ -0,0 +1,36 @@
+package sde.virginia.edu.hw4;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one canonical instance of each distinct immutable value, so equal values can share a single object. Once
+ * values are interned, equal values are usually the same object, and equality checks short-circuit on identity.<br>
+ * Canonical instances are held for the life of the interner, so it should only be used for values drawn from a small,
+ * bounded set, such as the standard meeting patterns of {@link TimeSlot TimeSlots} or the rooms of
+ * {@link Location Locations}. It is safe to use from multiple threads.
+ * @param <T> the type of value, which must be immutable and have value-based equals and hashCode
+ */
+public class Interner<T> {
+    private final ConcurrentHashMap<T, T> canonical = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the canonical instance of a value
+     * @param value the value to intern
+     * @return the instance equal to value that was interned first, which is value itself if no equal value has been
+     * interned before.
+     */
+    public T intern(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot intern null");
+        }
+        var existing = canonical.putIfAbsent(value, value);
+        return existing == null ? value : existing;
+    }
+
+    /**
+     * Gets the number of distinct values interned
+     */
+    public int size() {
+        return canonical.size();
+    }
+}
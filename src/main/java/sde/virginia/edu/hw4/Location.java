@@ -6,11 +6,26 @@ package sde.virginia.edu.hw4;
  * @param room the specific room in the building the class is located. Represented as a {@link String} because some
  *             rooms contain letters (i.e., 301A, 301B, etc.)
  * @param roomCapacity the fire-code capacity of the room. No class in this room can have a larger enrollment cap.
+ * @see Location#of(String, String, int)
  */
 public record Location(String building, String room, int roomCapacity) {
+    private static final Interner<Location> INTERNER = new Interner<>();
+
     public Location {
         if (building == null || room == null || roomCapacity < 0) {
             throw new IllegalArgumentException("Invalid location");
         }
     }
+
+    /**
+     * Gets the shared instance of a location. Equal locations made through this factory are the same object.
+     * @param building the name of the building
+     * @param room the room in the building
+     * @param roomCapacity the fire-code capacity of the room
+     * @return the canonical {@link Location} for those values
+     * @throws IllegalArgumentException under the same conditions as the constructor
+     */
+    public static Location of(String building, String room, int roomCapacity) {
+        return INTERNER.intern(new Location(building, room, roomCapacity));
+    }
 }
@@ -0,0 +1,171 @@
+package sde.virginia.edu.hw4;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The {@link Section sections} booked in a single {@link Location}, ordered by start time for each day of the week.
+ * This lets a {@link Catalog} check a room for conflicts without comparing against every section held in it.
+ * Booked sections may overlap each other, i.e., if they were added to the catalog directly rather than through
+ * {@link CatalogService}.
+ * @see Catalog#isLocationAvailable(Location, TimeSlot)
+ */
+public class LocationBookings {
+    /**
+     * The number of minutes in a day
+     */
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * For each day, the booked sections keyed by their start time in minutes.
+     */
+    private final Map<DayOfWeek, TreeMap<Integer, Set<Section>>> bookingsByDay;
+    /**
+     * For each day and each booked start time, the latest end of the sections that start at or before that time and
+     * are still running after it, or 0 if none are. Sections that end by a start time cannot affect it, so adding or
+     * removing a section only updates the start times within that section's span.
+     */
+    private final Map<DayOfWeek, TreeMap<Integer, Integer>> latestEndByDay;
+
+    /**
+     * Creates an empty set of bookings
+     */
+    public LocationBookings() {
+        this.bookingsByDay = new EnumMap<>(DayOfWeek.class);
+        this.latestEndByDay = new EnumMap<>(DayOfWeek.class);
+    }
+
+    /**
+     * Books a section's {@link TimeSlot} on each of its days.
+     * @param section the {@link Section} to book
+     */
+    public void add(Section section) {
+        var timeSlot = section.getTimeSlot();
+        for (DayOfWeek day : timeSlot.days()) {
+            var bookings = bookingsByDay.computeIfAbsent(day, d -> new TreeMap<>());
+            bookings.computeIfAbsent(timeSlot.startTimeInMinutes(), start -> new HashSet<>()).add(section);
+            updateLatestEnds(bookings, latestEndByDay.computeIfAbsent(day, d -> new TreeMap<>()),
+                    timeSlot.startTimeInMinutes(), timeSlot.endTimeInMinutes());
+        }
+    }
+
+    /**
+     * Removes a section's booking on each of its days.
+     * @param section the {@link Section} to remove
+     */
+    public void remove(Section section) {
+        var timeSlot = section.getTimeSlot();
+        for (DayOfWeek day : timeSlot.days()) {
+            var bookings = bookingsByDay.get(day);
+            if (bookings == null) {
+                continue;
+            }
+            var start = timeSlot.startTimeInMinutes();
+            var startingSections = bookings.get(start);
+            if (startingSections == null || !startingSections.remove(section)) {
+                continue;
+            }
+            var latestEnds = latestEndByDay.get(day);
+            if (startingSections.isEmpty()) {
+                bookings.remove(start);
+                latestEnds.remove(start);
+                if (bookings.isEmpty()) {
+                    bookingsByDay.remove(day);
+                    latestEndByDay.remove(day);
+                    continue;
+                }
+            }
+            updateLatestEnds(bookings, latestEnds, start, timeSlot.endTimeInMinutes());
+        }
+    }
+
+    /**
+     * Returns true if there are no bookings on any day.
+     */
+    public boolean isEmpty() {
+        return bookingsByDay.isEmpty();
+    }
+
+    /**
+     * Checks if a {@link TimeSlot} overlaps with any booking, using the same rules as
+     * {@link TimeSlot#overlapsWith(TimeSlot)}. This takes logarithmic time in the number of bookings per day.
+     * @param timeSlot the {@link TimeSlot} to check
+     * @return true if the time slot overlaps an existing booking on any of its days.
+     */
+    public boolean overlapsWith(TimeSlot timeSlot) {
+        var start = timeSlot.startTimeInMinutes();
+        var end = timeSlot.endTimeInMinutes();
+        for (DayOfWeek day : timeSlot.days()) {
+            var bookings = bookingsByDay.get(day);
+            if (bookings == null) {
+                continue;
+            }
+            var latestEndStartingBefore = latestEndByDay.get(day).floorEntry(start);
+            if (latestEndStartingBefore != null && latestEndStartingBefore.getValue() > start) {
+                return true;
+            }
+            if (start < end && !bookings.subMap(start, true, end, false).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recomputes the latest ends for the booked start times from one time through another, in order. Each start
+     * time's latest end follows from the previous start time's and the sections starting at that time.
+     */
+    private static void updateLatestEnds(TreeMap<Integer, Set<Section>> bookings, TreeMap<Integer, Integer> latestEnds,
+                                         int from, int to) {
+        var previous = latestEnds.lowerEntry(from);
+        var carried = previous == null ? 0 : previous.getValue();
+        for (Map.Entry<Integer, Set<Section>> entry : bookings.subMap(from, true, to, true).entrySet()) {
+            var start = entry.getKey();
+            var latestEnd = carried > start ? carried : 0;
+            for (Section section : entry.getValue()) {
+                var end = section.getTimeSlot().endTimeInMinutes();
+                if (end > start) {
+                    latestEnd = Math.max(latestEnd, end);
+                }
+            }
+            latestEnds.put(start, latestEnd);
+            carried = latestEnd;
+        }
+    }
+
+    /**
+     * Get the windows of time on a given day when nothing is booked.
+     * @param day the {@link DayOfWeek}
+     * @return the free windows, in order, each as a single-day {@link TimeSlot}. A window ending at midnight has an
+     * end time of 24:00.
+     */
+    public List<TimeSlot> getFreeWindows(DayOfWeek day) {
+        var bookings = bookingsByDay.getOrDefault(day, new TreeMap<>());
+        var freeWindows = new ArrayList<TimeSlot>();
+        var freeFrom = 0;
+        for (Set<Section> startingSections : bookings.values()) {
+            for (Section section : startingSections) {
+                var timeSlot = section.getTimeSlot();
+                if (timeSlot.startTimeInMinutes() > freeFrom) {
+                    freeWindows.add(window(day, freeFrom, timeSlot.startTimeInMinutes()));
+                }
+                freeFrom = Math.max(freeFrom, timeSlot.endTimeInMinutes());
+            }
+        }
+        if (freeFrom < MINUTES_PER_DAY) {
+            freeWindows.add(window(day, freeFrom, MINUTES_PER_DAY));
+        }
+        return Collections.unmodifiableList(freeWindows);
+    }
+
+    private static TimeSlot window(DayOfWeek day, int start, int end) {
+        return new TimeSlot(Set.of(day), start / 60, start % 60, end / 60, end % 60);
+    }
+}
@@ -3,7 +3,9 @@ package sde.virginia.edu.hw4;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Represents the requirements need to take a {@link Course}.
@@ -79,14 +81,31 @@ public class Prerequisite {
      */
     public boolean isSatisfiedBy(Student student) {
         //TODO: update method to account for student's currently taking the course
+        return isSatisfiedBy(student::getBestGrade);
+    }
+
+    /**
+     * Checks if a student meets this pre-requisite using their cached best grades.
+     * @param profile the {@link EligibilityProfile} of the student to check
+     * @return true if the student meets all the prerequisite conditions. False otherwise.
+     * @see Prerequisite#isSatisfiedBy(Student)
+     */
+    public boolean isSatisfiedBy(EligibilityProfile profile) {
+        return isSatisfiedBy(profile::getBestGrade);
+    }
+
+    /**
+     * Checks every required course against a student's best grades
+     * @param bestGrades gets the student's best grade in a course, or empty if they haven't taken it
+     */
+    private boolean isSatisfiedBy(Function<Course, Optional<Grade>> bestGrades) {
         for (Course course: requiredCourses.keySet()) {
-            var minimumGrade = requiredCourses.get(course);
-            var optionalTranscriptGrade = student.getBestGrade(course);
+            var optionalTranscriptGrade = bestGrades.apply(course);
             if (optionalTranscriptGrade.isEmpty()) {
                 return false;
             }
             var transcriptGrade = optionalTranscriptGrade.get();
-            if (!transcriptGrade.greaterThanOrEqualTo(minimumGrade)) {
+            if (!transcriptGrade.greaterThanOrEqualTo(requiredCourses.get(course))) {
                 return false;
             }
         }
@@ -1,5 +1,16 @@
 package sde.virginia.edu.hw4;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Registers {@link Student students} for {@link Section sections} and drops them. This class is not thread-safe;
+ * see {@link ConcurrentRegistrationService} for concurrent use.
+ */
 public class RegistrationService {
     /**
      * Describes the result of {@link RegistrationService#register(Student, Section)}. Either the student was:
@@ -45,7 +56,57 @@ public class RegistrationService {
          * Unable to enroll because this would cause the student to exceed their credit limit (combining the credits
          * that they are enrolled AND waitlisted in).
          */
-        FAILED_CREDIT_LIMIT_VIOLATION
+        FAILED_CREDIT_LIMIT_VIOLATION,
+        /**
+         * The student could register for this section, but another section in the same
+         * {@link RegistrationService#registerAll(Student, List) cart} failed, so no section in the cart was registered.
+         */
+        FAILED_CART_REJECTED,
+        /**
+         * The request was not processed because the section is overloaded. The student may try again later.
+         * @see SectionActorRegistrationService
+         */
+        FAILED_TRY_AGAIN_LATER,
+        /**
+         * Unable to enroll because the student's registration window has not opened yet
+         * @see AdmissionScheduler
+         */
+        FAILED_OUTSIDE_REGISTRATION_WINDOW,
+        /**
+         * Unable to swap sections because the student is neither enrolled nor wait listed in the section they are
+         * swapping out of
+         * @see RegistrationService#swap(Student, Section, Section)
+         */
+        FAILED_NOT_REGISTERED
+    }
+
+    /**
+     * Results of registrations that carried a request id
+     */
+    private final IdempotencyCache<RegistrationResult> registrationRequests;
+    /**
+     * Results of drops that carried a request id
+     */
+    private final IdempotencyCache<Boolean> dropRequests;
+
+    /**
+     * Creates a registration service that remembers request ids with the
+     * {@link IdempotencyCache#DEFAULT_MAX_ENTRIES default size} and
+     * {@link IdempotencyCache#DEFAULT_TIME_TO_LIVE default time to live}
+     */
+    public RegistrationService() {
+        this(IdempotencyCache.DEFAULT_MAX_ENTRIES, IdempotencyCache.DEFAULT_TIME_TO_LIVE, Clock.systemUTC());
+    }
+
+    /**
+     * @param maxRequestIds the most request ids remembered for each of registrations and drops
+     * @param requestIdTimeToLive how long a request id is remembered
+     * @param clock the {@link Clock} used to expire request ids
+     * @see IdempotencyCache
+     */
+    public RegistrationService(int maxRequestIds, Duration requestIdTimeToLive, Clock clock) {
+        this.registrationRequests = new IdempotencyCache<>(maxRequestIds, requestIdTimeToLive, clock);
+        this.dropRequests = new IdempotencyCache<>(maxRequestIds, requestIdTimeToLive, clock);
     }
 
     /**
@@ -65,12 +126,215 @@ public class RegistrationService {
      * @see Student#getEnrolledSections()
      * @see Student#getWaitListedSections()
      * @see Section#overlapsWith(TimeSlot)
-     * @see Prerequisite#isSatisfiedBy(Student)
-     * @see Student#getCreditLimit() 
+     * @see Prerequisite#isSatisfiedBy(EligibilityProfile)
+     * @see Student#getEligibilityProfile()
      */
     public RegistrationResult register(Student student, Section section) {
+        var course = section.getCourse();
+        if (student.isEnrolledInCourse(course) || student.isWaitListedInCourse(course)) {
+            return RegistrationResult.FAILED_ALREADY_IN_COURSE;
+        }
+        if (!section.isEnrollmentOpen()) {
+            return RegistrationResult.FAILED_ENROLLMENT_CLOSED;
+        }
+        if (section.isEnrollmentFull() && section.isWaitListFull()) {
+            return RegistrationResult.FAILED_SECTION_FULL;
+        }
+        if (hasScheduleConflict(student, section)) {
+            return RegistrationResult.FAILED_SCHEDULE_CONFLICT;
+        }
+        var profile = student.getEligibilityProfile();
+        if (!course.getPrerequisite().isSatisfiedBy(profile)) {
+            return RegistrationResult.FAILED_PREREQUISITE_NOT_MET;
+        }
+        if (profile.getRegisteredCreditHours() + course.getCreditHours() > profile.getCreditLimit()) {
+            return RegistrationResult.FAILED_CREDIT_LIMIT_VIOLATION;
+        }
+
+        return addToSection(student, section);
+    }
+
+    /**
+     * Registers a {@link Student} for a {@link Section} at most once per request id. A retry with the same request id
+     * returns the original {@link RegistrationResult} without registering again. A
+     * {@link RegistrationResult#FAILED_TRY_AGAIN_LATER} result is not remembered, so its retry is processed.
+     * @param requestId the id shared by a request and its retries
+     * @param student the {@link Student} attempting to enroll in a section.
+     * @param section the {@link Section} the student is attempting to enroll in
+     * @return the result of the original request with this id
+     * @see RegistrationService#register(Student, Section)
+     * @see IdempotencyCache
+     */
+    public RegistrationResult register(String requestId, Student student, Section section) {
+        var result = registrationRequests.execute(requestId, () -> register(student, section));
+        if (result == RegistrationResult.FAILED_TRY_AGAIN_LATER) {
+            registrationRequests.forget(requestId);
+        }
+        return result;
+    }
+
+    /**
+     * Registers a {@link Student} for a cart of {@link Section sections} all at once. Every section is checked with
+     * the same rules as {@link RegistrationService#register(Student, Section)}, where each section must also not
+     * share a course or conflict with an earlier section in the cart, and the credit limit applies to the cart's
+     * combined credit hours. If every section passes, the student is enrolled or wait listed in all of them.
+     * Otherwise, no changes are made, and every section that passed is reported as
+     * {@link RegistrationResult#FAILED_CART_REJECTED}.
+     *
+     * @param student the {@link Student} registering
+     * @param cart the {@link Section sections} to register for, in order of priority
+     * @return the result for each section, where the result at index {@code i} is for the section at index {@code i}
+     * of the cart.
+     * @see RegistrationService#register(Student, Section)
+     */
+    public List<RegistrationResult> registerAll(Student student, List<Section> cart) {
+        var registeredSections = new ArrayList<>(student.getEnrolledSections());
+        registeredSections.addAll(student.getWaitListedSections());
+        var profile = student.getEligibilityProfile();
+        var occupancy = new WeeklyOccupancy();
+        var courses = new HashSet<Course>();
+        for (Section registered : registeredSections) {
+            occupancy.mark(registered.getTimeSlot());
+            courses.add(registered.getCourse());
+        }
+        var creditHours = profile.getRegisteredCreditHours();
+
+        var results = new ArrayList<RegistrationResult>(cart.size());
+        var accepted = true;
+        for (Section section : cart) {
+            var result = checkCartSection(profile, section, courses, occupancy, registeredSections, creditHours);
+            if (result == null) {
+                courses.add(section.getCourse());
+                occupancy.mark(section.getTimeSlot());
+                registeredSections.add(section);
+                creditHours += section.getCourse().getCreditHours();
+            } else {
+                accepted = false;
+            }
+            results.add(result);
+        }
+
+        if (!accepted) {
+            results.replaceAll(result -> result == null ? RegistrationResult.FAILED_CART_REJECTED : result);
+            return results;
+        }
+        for (int i = 0; i < cart.size(); i++) {
+            results.set(i, addToSection(student, cart.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Checks one cart section against the student's schedule plus the cart sections accepted so far.
+     * @return the failure, or null if the section can be registered
+     */
+    private static RegistrationResult checkCartSection(EligibilityProfile profile, Section section,
+                                                       Set<Course> courses, WeeklyOccupancy occupancy,
+                                                       List<Section> registeredSections, int creditHours) {
+        var course = section.getCourse();
+        if (courses.contains(course)) {
+            return RegistrationResult.FAILED_ALREADY_IN_COURSE;
+        }
+        if (!section.isEnrollmentOpen()) {
+            return RegistrationResult.FAILED_ENROLLMENT_CLOSED;
+        }
+        if (section.isEnrollmentFull() && section.isWaitListFull()) {
+            return RegistrationResult.FAILED_SECTION_FULL;
+        }
+        if (occupancy.intersects(section.getTimeSlot()) && registeredSections.stream()
+                .anyMatch(registered -> registered.overlapsWith(section.getTimeSlot()))) {
+            return RegistrationResult.FAILED_SCHEDULE_CONFLICT;
+        }
+        if (!course.getPrerequisite().isSatisfiedBy(profile)) {
+            return RegistrationResult.FAILED_PREREQUISITE_NOT_MET;
+        }
+        if (creditHours + course.getCreditHours() > profile.getCreditLimit()) {
+            return RegistrationResult.FAILED_CREDIT_LIMIT_VIOLATION;
+        }
         return null;
-        //TODO: implement and test
+    }
+
+    /**
+     * Enrolls the student if the section has a free seat, and wait lists them otherwise, updating their schedule.
+     */
+    private static RegistrationResult addToSection(Student student, Section section) {
+        if (!section.isEnrollmentFull()) {
+            section.addStudentToEnrollment(student);
+            student.addEnrolledSection(section);
+            return RegistrationResult.SUCCESS_ENROLLED;
+        }
+        section.addStudentToWaitList(student);
+        student.addWaitListedSection(section);
+        return RegistrationResult.SUCCESS_WAIT_LISTED;
+    }
+
+    private static boolean hasScheduleConflict(Student student, Section section) {
+        return hasScheduleConflict(student, section, null);
+    }
+
+    /**
+     * Checks the section against the student's enrolled and wait listed sections, except the ignored one (if any)
+     */
+    private static boolean hasScheduleConflict(Student student, Section section, Section ignored) {
+        return student.getConflictingSection(section.getTimeSlot(), ignored).isPresent();
+    }
+
+    /**
+     * Moves a {@link Student} from one {@link Section} to another as a single step, so the student never loses their
+     * place in the old section unless they get into the new one. The new section is checked with the same rules as
+     * {@link RegistrationService#register(Student, Section)}, except that the old section is left out: the student may
+     * swap between sections of the same course, and the old section's time and credit hours do not count against the
+     * new one. A student enrolled in the old section must get an enrolled seat in the new section; a student wait
+     * listed in the old section may be enrolled or wait listed in the new one.<br>
+     * If the swap succeeds, the student is removed from the old section without a {@link Grade#DROP} grade, and a seat
+     * vacated in the old section's enrollment is filled from its wait list as part of the swap, never later.
+     *
+     * @param student the {@link Student} swapping sections
+     * @param oldSection the {@link Section} the student is enrolled or wait listed in
+     * @param newSection the {@link Section} the student wants instead
+     * @return the {@link RegistrationResult} for the new section. If it is a failure, nothing changed.
+     * @see RegistrationService#promoteFromWaitList(Section)
+     */
+    public RegistrationResult swap(Student student, Section oldSection, Section newSection) {
+        var wasEnrolled = oldSection.isStudentEnrolled(student);
+        if (!wasEnrolled && !oldSection.isStudentWaitListed(student)) {
+            return RegistrationResult.FAILED_NOT_REGISTERED;
+        }
+        var course = newSection.getCourse();
+        if (oldSection.equals(newSection) || (!course.equals(oldSection.getCourse()) &&
+                (student.isEnrolledInCourse(course) || student.isWaitListedInCourse(course)))) {
+            return RegistrationResult.FAILED_ALREADY_IN_COURSE;
+        }
+        if (!newSection.isEnrollmentOpen()) {
+            return RegistrationResult.FAILED_ENROLLMENT_CLOSED;
+        }
+        if (newSection.isEnrollmentFull() && (wasEnrolled || newSection.isWaitListFull())) {
+            return RegistrationResult.FAILED_SECTION_FULL;
+        }
+        if (hasScheduleConflict(student, newSection, oldSection)) {
+            return RegistrationResult.FAILED_SCHEDULE_CONFLICT;
+        }
+        var profile = student.getEligibilityProfile();
+        if (!course.getPrerequisite().isSatisfiedBy(profile)) {
+            return RegistrationResult.FAILED_PREREQUISITE_NOT_MET;
+        }
+        var creditHours = profile.getRegisteredCreditHours() - oldSection.getCourse().getCreditHours();
+        if (creditHours + course.getCreditHours() > profile.getCreditLimit()) {
+            return RegistrationResult.FAILED_CREDIT_LIMIT_VIOLATION;
+        }
+
+        if (wasEnrolled) {
+            oldSection.removeStudentFromEnrolled(student);
+            student.removeEnrolledSection(oldSection);
+        } else {
+            oldSection.removeStudentFromWaitList(student);
+            student.removeWaitListedSection(oldSection);
+        }
+        var result = addToSection(student, newSection);
+        if (wasEnrolled) {
+            fillFromWaitList(oldSection);
+        }
+        return result;
     }
 
     /**
@@ -80,8 +344,8 @@ public class RegistrationService {
      * done even if the student already has a grade.)
      *
      * If the student was enrolled (i.e., not waitlisted), and this frees up an empty seat in the class's enrollment,
-     * AND the {@link Section}'s enrollment is still {@link EnrollmentStatus#OPEN open}, then the first student
-     * on the wait list should be removed from the wait list and added to the section's enrollment automatically. That
+     * AND the {@link Section}'s enrollment is still {@link EnrollmentStatus#OPEN open}, then the first eligible
+     * student on the wait list should be removed from the wait list and added to the section's enrollment automatically. That
      * student's schedule should also be updated to reflect the change. However, if enrollment for the section is
      * {@link EnrollmentStatus#CLOSED closed}, no students should be added to enrollment even if the course is under
      * enrollment capacity.
@@ -96,12 +360,120 @@ public class RegistrationService {
      * @see Section#isEnrollmentFull()
      * @see Section#removeStudentFromEnrolled(Student)
      * @see Section#removeStudentFromWaitList(Student)
-     * @see Section#getFirstStudentOnWaitList()
+     * @see RegistrationService#promoteFromWaitList(Section)
      * @see Student#removeEnrolledSection(Section)
      * @see Student#removeWaitListedSection(Section)
      */
     public boolean drop(Student student, Section section) {
+        if (section.isStudentEnrolled(student)) {
+            section.removeStudentFromEnrolled(student);
+            student.removeEnrolledSection(section);
+            student.addGrade(section, Grade.DROP);
+            seatReleased(section);
+            return true;
+        }
+        if (section.isStudentWaitListed(student)) {
+            section.removeStudentFromWaitList(student);
+            student.removeWaitListedSection(section);
+            student.addGrade(section, Grade.DROP);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drops a {@link Student} from a {@link Section} at most once per request id. A retry with the same request id
+     * returns the original result without dropping again.
+     * @param requestId the id shared by a request and its retries
+     * @param student the {@link Student} attempting to drop from a section's enrollment or wait list
+     * @param section the {@link Section} to drop the student from.
+     * @return the result of the original request with this id
+     * @see RegistrationService#drop(Student, Section)
+     * @see IdempotencyCache
+     */
+    public boolean drop(String requestId, Student student, Section section) {
+        return dropRequests.execute(requestId, () -> drop(student, section));
+    }
+
+    /**
+     * Called after a drop frees a seat in a section. By default, the seat is filled from the wait list right away.
+     * @param section the {@link Section} with a free seat
+     */
+    protected void seatReleased(Section section) {
+        fillFromWaitList(section);
+    }
+
+    /**
+     * Fills a section's free seats from its wait list, in wait list order. Each student is re-checked before being
+     * promoted, and a student who now has a schedule conflict with an enrolled section or is over their credit limit
+     * is skipped and stays on the wait list. Nothing is promoted if the section's enrollment is
+     * {@link EnrollmentStatus#CLOSED closed}.
+     * @param section the {@link Section} to promote students in
+     * @return the students who were promoted, in wait list order
+     */
+    public List<Student> promoteFromWaitList(Section section) {
+        return fillFromWaitList(section);
+    }
+
+    /**
+     * Closes a section's enrollment and clears its wait list, removing the section from each wait listed student's
+     * {@link Schedule}.
+     * @param section the {@link Section} to close
+     * @return the students who were on the wait list, in wait list order
+     * @see CatalogService#closeAllSection()
+     */
+    public List<Student> closeSection(Section section) {
+        section.setEnrollmentStatus(EnrollmentStatus.CLOSED);
+        var waitListedStudents = section.clearWaitList();
+        for (Student student : waitListedStudents) {
+            student.removeWaitListedSection(section);
+        }
+        return waitListedStudents;
+    }
+
+    /**
+     * Checks if this service guards sections and students itself, so its methods may be called from several threads at
+     * once.
+     * @return false, since this service is not thread-safe
+     */
+    public boolean isThreadSafe() {
         return false;
-        //TODO: implement and test
+    }
+
+    /**
+     * Fills a section's free seats from its wait list, as described in
+     * {@link RegistrationService#promoteFromWaitList(Section)}. Drops and swaps call this directly, since they
+     * already hold whatever guards the section and its wait listed students; subclasses that add those guards
+     * override {@link RegistrationService#promoteFromWaitList(Section)} instead.
+     * @param section the {@link Section} to promote students in
+     * @return the students who were promoted, in wait list order
+     */
+    protected List<Student> fillFromWaitList(Section section) {
+        var promoted = new ArrayList<Student>();
+        if (!section.isEnrollmentOpen()) {
+            return promoted;
+        }
+        for (Student student : new ArrayList<>(section.getWaitListedStudents())) {
+            if (section.isEnrollmentFull()) {
+                break;
+            }
+            if (!isEligibleForPromotion(student, section)) {
+                continue;
+            }
+            section.removeStudentFromWaitList(student);
+            student.removeWaitListedSection(section);
+            section.addStudentToEnrollment(student);
+            student.addEnrolledSection(section);
+            promoted.add(student);
+        }
+        return promoted;
+    }
+
+    private static boolean isEligibleForPromotion(Student student, Section section) {
+        if (student.getConflictingEnrolledSection(section.getTimeSlot()).isPresent()) {
+            return false;
+        }
+        var profile = student.getEligibilityProfile();
+        return profile.getRegisteredCreditHours() <= profile.getCreditLimit();
     }
 }
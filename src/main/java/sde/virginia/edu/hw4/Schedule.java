@@ -1,7 +1,10 @@
 package sde.virginia.edu.hw4;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -21,6 +24,34 @@ public class Schedule {
      */
     private final Set<Section> waitListedSections;
 
+    /**
+     * Incremented on every change to the enrolled or wait-listed sections, so cached values derived from the
+     * schedule can tell when they are stale.
+     */
+    private long version;
+
+    /**
+     * The weekly occupancy of the enrolled and wait-listed sections. Each is built on the first conflict check and
+     * kept up to date by every add and remove after that.
+     */
+    private WeeklyOccupancy enrolledOccupancy;
+    private WeeklyOccupancy waitListedOccupancy;
+
+    /**
+     * Running credit hour totals of the enrolled and wait-listed sections. Like the occupancy, they are counted on
+     * the first query and kept up to date by every add and remove after that.
+     */
+    private boolean creditHoursCounted;
+    private int enrolledCreditHours;
+    private int waitListedCreditHours;
+
+    /**
+     * The enrolled and wait-listed sections by {@link Course}, so course membership is a single lookup. Each index is
+     * built on the first course query and kept up to date by every add and remove after that.
+     */
+    private Map<Course, Section> enrolledByCourse;
+    private Map<Course, Section> waitListedByCourse;
+
     /**
      * Creates an empty schedule
      */
@@ -53,7 +84,14 @@ public class Schedule {
      * that section.
      */
     public boolean addEnrolledSection(Section section) {
-        return enrolledSections.add(section);
+        var changed = enrolledSections.add(section);
+        if (changed) {
+            added(enrolledOccupancy, enrolledByCourse, section);
+            if (creditHoursCounted) {
+                enrolledCreditHours += section.getCourse().getCreditHours();
+            }
+        }
+        return stamp(changed);
     }
 
     /**
@@ -63,7 +101,14 @@ public class Schedule {
      */
 
     public boolean removeEnrolledSection(Section section) {
-        return enrolledSections.remove(section);
+        var changed = enrolledSections.remove(section);
+        if (changed) {
+            removed(enrolledOccupancy, enrolledByCourse, enrolledSections, section);
+            if (creditHoursCounted) {
+                enrolledCreditHours -= section.getCourse().getCreditHours();
+            }
+        }
+        return stamp(changed);
     }
 
     public boolean isEnrolledInSection(Section section) {
@@ -76,9 +121,16 @@ public class Schedule {
      * @return true if the student is enrolled in a {@link Section} associated with the course.
      */
     public boolean isEnrolledInCourse(Course course) {
-        return enrolledSections.stream()
-                .map(Section::getCourse)
-                .anyMatch(c -> c.equals(course));
+        return getEnrolledByCourse().containsKey(course);
+    }
+
+    /**
+     * Gets the section of a course the student is enrolled in
+     * @param course a {@link Course}
+     * @return the enrolled {@link Section} of that course, or empty if the student is not enrolled in the course.
+     */
+    public Optional<Section> getEnrolledSection(Course course) {
+        return Optional.ofNullable(getEnrolledByCourse().get(course));
     }
 
     /**
@@ -96,7 +148,14 @@ public class Schedule {
      * that section.
      */
     public boolean addWaitListedSection(Section section) {
-        return waitListedSections.add(section);
+        var changed = waitListedSections.add(section);
+        if (changed) {
+            added(waitListedOccupancy, waitListedByCourse, section);
+            if (creditHoursCounted) {
+                waitListedCreditHours += section.getCourse().getCreditHours();
+            }
+        }
+        return stamp(changed);
     }
 
     /**
@@ -105,12 +164,217 @@ public class Schedule {
      * @return true if the sections was removed. False if the student was not waitlisted in that section.
      */
     public boolean removeWaitListedSection(Section section) {
-        return waitListedSections.remove(section);
+        var changed = waitListedSections.remove(section);
+        if (changed) {
+            removed(waitListedOccupancy, waitListedByCourse, waitListedSections, section);
+            if (creditHoursCounted) {
+                waitListedCreditHours -= section.getCourse().getCreditHours();
+            }
+        }
+        return stamp(changed);
     }
 
     public boolean isWaitListedInSection(Section section) {
         return waitListedSections.contains(section);
     }
 
+    /**
+     * Returns true if the student is wait-listed in any {@link Section} that is an offering of course
+     * @param course a {@link Course}
+     * @return true if the student is wait-listed in a {@link Section} associated with the course.
+     */
+    public boolean isWaitListedInCourse(Course course) {
+        return getWaitListedByCourse().containsKey(course);
+    }
+
+    /**
+     * Gets the section of a course the student is wait-listed in
+     * @param course a {@link Course}
+     * @return the wait-listed {@link Section} of that course, or empty if the student is not wait-listed in the
+     * course.
+     */
+    public Optional<Section> getWaitListedSection(Course course) {
+        return Optional.ofNullable(getWaitListedByCourse().get(course));
+    }
+
+    /**
+     * Finds a section on the schedule, enrolled or wait-listed, whose time overlaps a {@link TimeSlot}. Sections that
+     * cannot overlap are ruled out with a {@link WeeklyOccupancy} bitmap, so only a possible hit is compared section
+     * by section.
+     * @param timeSlot the {@link TimeSlot} to check
+     * @return the first enrolled, then wait-listed, {@link Section} that overlaps the time slot, or empty if there is
+     * no conflict.
+     */
+    public Optional<Section> getConflictingSection(TimeSlot timeSlot) {
+        return getConflictingSection(timeSlot, null);
+    }
 
+    /**
+     * Finds a section on the schedule, enrolled or wait-listed, whose time overlaps a {@link TimeSlot}, as if a given
+     * section were not on the schedule.
+     * @param timeSlot the {@link TimeSlot} to check
+     * @param excluded the {@link Section} to leave out, or null to check every section
+     * @return the first enrolled, then wait-listed, {@link Section} other than the excluded one that overlaps the time
+     * slot, or empty if there is no conflict.
+     * @see Schedule#getConflictingSection(TimeSlot)
+     */
+    public Optional<Section> getConflictingSection(TimeSlot timeSlot, Section excluded) {
+        var conflict = findConflict(getEnrolledOccupancy(), enrolledSections, timeSlot, excluded);
+        if (conflict.isPresent()) {
+            return conflict;
+        }
+        return findConflict(getWaitListedOccupancy(), waitListedSections, timeSlot, excluded);
+    }
+
+    /**
+     * Finds an enrolled section whose time overlaps a {@link TimeSlot}, ignoring wait-listed sections.
+     * @param timeSlot the {@link TimeSlot} to check
+     * @return the first enrolled {@link Section} that overlaps the time slot, or empty if there is no conflict.
+     */
+    public Optional<Section> getConflictingEnrolledSection(TimeSlot timeSlot) {
+        return findConflict(getEnrolledOccupancy(), enrolledSections, timeSlot, null);
+    }
+
+    /**
+     * Gets the credit hours of the sections the student is enrolled in
+     * @return the sum of the enrolled sections' {@link Course#getCreditHours() credit hours}
+     */
+    public int getEnrolledCreditHours() {
+        countCreditHours();
+        return enrolledCreditHours;
+    }
+
+    /**
+     * Gets the credit hours of the sections the student is enrolled or wait-listed in. This is the total that counts
+     * against the student's credit limit.
+     * @return the sum of the enrolled and wait-listed sections' {@link Course#getCreditHours() credit hours}
+     */
+    public int getTotalCreditHours() {
+        countCreditHours();
+        return enrolledCreditHours + waitListedCreditHours;
+    }
+
+    /**
+     * Gets the schedule's version, which changes every time a section is added or removed.
+     * @return the version stamp
+     * @see EligibilityProfile
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    private boolean stamp(boolean changed) {
+        if (changed) {
+            version++;
+        }
+        return changed;
+    }
+
+    private void countCreditHours() {
+        if (!creditHoursCounted) {
+            enrolledCreditHours = creditHoursOf(enrolledSections);
+            waitListedCreditHours = creditHoursOf(waitListedSections);
+            creditHoursCounted = true;
+        }
+    }
+
+    private static int creditHoursOf(Set<Section> sections) {
+        var creditHours = 0;
+        for (Section section : sections) {
+            creditHours += section.getCourse().getCreditHours();
+        }
+        return creditHours;
+    }
+
+    private Map<Course, Section> getEnrolledByCourse() {
+        if (enrolledByCourse == null) {
+            enrolledByCourse = indexOf(enrolledSections);
+        }
+        return enrolledByCourse;
+    }
+
+    private Map<Course, Section> getWaitListedByCourse() {
+        if (waitListedByCourse == null) {
+            waitListedByCourse = indexOf(waitListedSections);
+        }
+        return waitListedByCourse;
+    }
+
+    private static Map<Course, Section> indexOf(Set<Section> sections) {
+        var index = new HashMap<Course, Section>();
+        for (Section section : sections) {
+            index.putIfAbsent(section.getCourse(), section);
+        }
+        return index;
+    }
+
+    private WeeklyOccupancy getEnrolledOccupancy() {
+        if (enrolledOccupancy == null) {
+            enrolledOccupancy = occupancyOf(enrolledSections);
+        }
+        return enrolledOccupancy;
+    }
+
+    private WeeklyOccupancy getWaitListedOccupancy() {
+        if (waitListedOccupancy == null) {
+            waitListedOccupancy = occupancyOf(waitListedSections);
+        }
+        return waitListedOccupancy;
+    }
+
+    private static WeeklyOccupancy occupancyOf(Set<Section> sections) {
+        var occupancy = new WeeklyOccupancy();
+        for (Section section : sections) {
+            occupancy.mark(section.getTimeSlot());
+        }
+        return occupancy;
+    }
+
+    private static Optional<Section> findConflict(WeeklyOccupancy occupancy, Set<Section> sections,
+                                                  TimeSlot timeSlot, Section excluded) {
+        if (!occupancy.intersects(timeSlot)) {
+            return Optional.empty();
+        }
+        for (Section section : sections) {
+            if (!section.equals(excluded) && section.overlapsWith(timeSlot)) {
+                return Optional.of(section);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Brings a built occupancy and course index up to date with a section that was just added
+     */
+    private static void added(WeeklyOccupancy occupancy, Map<Course, Section> index, Section section) {
+        if (occupancy != null) {
+            occupancy.mark(section.getTimeSlot());
+        }
+        if (index != null) {
+            index.putIfAbsent(section.getCourse(), section);
+        }
+    }
+
+    /**
+     * Brings a built occupancy and course index up to date with a section that was just removed. The removed
+     * section's slots are freed, then the remaining sections that shared any of those slots are marked again.
+     * If another section of the removed section's course remains, it takes the removed section's place in the index.
+     */
+    private static void removed(WeeklyOccupancy occupancy, Map<Course, Section> index, Set<Section> sections,
+                                Section section) {
+        if (occupancy != null) {
+            occupancy.clear(section.getTimeSlot(), sections);
+        }
+        if (index != null) {
+            var course = section.getCourse();
+            if (index.remove(course, section)) {
+                for (Section remaining : sections) {
+                    if (remaining.getCourse().equals(course)) {
+                        index.put(course, remaining);
+                        break;
+                    }
+                }
+            }
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package sde.virginia.edu.hw4;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Section {
     /**
@@ -41,12 +42,17 @@ public class Section {
     /**
      * The maximum number of students that can be enrolled in the course
      */
-    private int enrollmentCapacity;
+    private volatile int enrollmentCapacity;
 
     /**
      * The maximum number of students that can be wait listed in the course
      */
-    private int waitListCapacity;
+    private volatile int waitListCapacity;
+
+    /**
+     * The number of free enrollment seats held back with {@link Section#tryReserveEnrollment()}
+     */
+    private final AtomicInteger reservedSeats = new AtomicInteger();
 
     /**
      * The set of students enrolled in the course
@@ -59,12 +65,24 @@ public class Section {
      */
     private final List<Student> waitListedStudents;
 
-    private EnrollmentStatus enrollmentStatus;
+    /**
+     * The number of enrolled students, updated by the methods that add and remove them. Unlike the set's size, this
+     * can be read safely without holding whatever guards the section's students.
+     */
+    private final AtomicInteger enrolledCount;
+
+    /**
+     * The number of wait listed students, updated by the methods that add and remove them. Unlike the list's size,
+     * this can be read safely without holding whatever guards the section's students.
+     */
+    private final AtomicInteger waitListedCount;
+
+    private volatile EnrollmentStatus enrollmentStatus;
 
     public Section(int courseRegistrationNumber, int sectionNumber, Course course, Semester semester, Location location,
                    TimeSlot timeSlot, Lecturer lecturer, int enrollmentCapacity, int waitListCapacity) {
         this(courseRegistrationNumber, sectionNumber, course, semester, location, timeSlot, lecturer,
-                enrollmentCapacity, waitListCapacity, new HashSet<>(), new ArrayList<>(), EnrollmentStatus.OPEN);
+                enrollmentCapacity, waitListCapacity, new HashSet<>(), new WaitList(), EnrollmentStatus.OPEN);
     }
 
     public Section(int courseRegistrationNumber, int sectionNumber, Course course, Semester semester, Location location,
@@ -85,6 +103,8 @@ public class Section {
         this.waitListCapacity = waitListCapacity;
         this.enrolledStudents = enrolledStudents;
         this.waitListedStudents = waitListedStudents;
+        this.enrolledCount = new AtomicInteger(enrolledStudents.size());
+        this.waitListedCount = new AtomicInteger(waitListedStudents.size());
         this.enrollmentStatus = enrollmentStatus;
     }
 
@@ -205,8 +225,53 @@ public class Section {
         return enrolledStudents.size();
     }
 
+    /**
+     * Checks if the enrollment is full. Seats held with {@link Section#tryReserveEnrollment()} count as taken.
+     * @return true if the enrollment is full or over capacity.
+     */
     public boolean isEnrollmentFull() {
-        return getEnrollmentSize() >= enrollmentCapacity;
+        return getEnrollmentSize() + reservedSeats.get() >= enrollmentCapacity;
+    }
+
+    /**
+     * Checks if both the enrollment and the wait list are full without holding any guard on the section, so requests
+     * that cannot succeed can be turned away early. This reads the seat counters kept by the add and remove methods,
+     * so it reflects every change that has completed. Held seats count as taken.
+     * @return true if no student can currently be enrolled or wait listed
+     * @see ConcurrentRegistrationService#register(Student, Section)
+     */
+    public boolean isFull() {
+        return enrolledCount.get() + reservedSeats.get() >= enrollmentCapacity &&
+                waitListedCount.get() >= waitListCapacity;
+    }
+
+    /**
+     * Holds a free enrollment seat back, so nobody can be added to enrollment in it until it is
+     * {@link Section#releaseEnrollment() released}. Used to keep a freed seat for the wait list until it is promoted.
+     * Callers must hold whatever guards the section's students.
+     * @return true if a seat was held, false if the enrollment is full.
+     * @see ConcurrentRegistrationService
+     */
+    public boolean tryReserveEnrollment() {
+        while (true) {
+            int reserved = reservedSeats.get();
+            if (getEnrollmentSize() + reserved >= enrollmentCapacity) {
+                return false;
+            }
+            if (reservedSeats.compareAndSet(reserved, reserved + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a seat held with {@link Section#tryReserveEnrollment()}.
+     * @throws IllegalStateException if no seat is held
+     */
+    public void releaseEnrollment() {
+        if (reservedSeats.getAndUpdate(reserved -> Math.max(0, reserved - 1)) == 0) {
+            throw new IllegalStateException("No enrollment seat is reserved for " + this);
+        }
     }
 
     /**
@@ -236,6 +301,7 @@ public class Section {
         }
 
         enrolledStudents.add(student);
+        enrolledCount.incrementAndGet();
     }
 
     /**
@@ -257,6 +323,7 @@ public class Section {
                     "Student: " + student + " is not enrolled in " + this);
         }
         enrolledStudents.remove(student);
+        enrolledCount.decrementAndGet();
     }
 
     /**
@@ -317,6 +384,21 @@ public class Section {
         return waitListedStudents.get(0);
     }
 
+    /**
+     * Gets a student's position on the wait list
+     * @param student the wait listed {@link Student}
+     * @return the student's 0-based position, where 0 is the next student to be added if space opens up.
+     * @throws IllegalArgumentException if the student is not on the wait list.
+     * @see WaitList#indexOf(Object)
+     */
+    public int getWaitListPosition(Student student) {
+        var position = waitListedStudents.indexOf(student);
+        if (position < 0) {
+            throw new IllegalArgumentException("Student: " + student + " is not on wait list for " + this);
+        }
+        return position;
+    }
+
     /**
      * Add a student to the wait list if the section enrollment is already full
      * @param student the student to add to the wait list.
@@ -343,6 +425,7 @@ public class Section {
         }
 
         waitListedStudents.add(student);
+        waitListedCount.incrementAndGet();
     }
 
     /**
@@ -365,6 +448,18 @@ public class Section {
                     "Student: " + student + " is not on wait list for " + this);
         }
         waitListedStudents.remove(student);
+        waitListedCount.decrementAndGet();
+    }
+
+    /**
+     * Removes every student from the wait list.
+     * @return the students that were on the wait list, in wait list order.
+     */
+    public List<Student> clearWaitList() {
+        var removedStudents = new ArrayList<>(waitListedStudents);
+        waitListedStudents.clear();
+        waitListedCount.set(0);
+        return removedStudents;
     }
 
     public boolean isEnrollmentOpen() {
@@ -0,0 +1,429 @@
+package sde.virginia.edu.hw4;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe {@link RegistrationService} where each {@link Section} is owned by a single-writer mailbox (an
+ * actor). Registrations, drops and promotions for a section are queued in its mailbox and applied one at a time, in
+ * arrival order, so sections need no locks. Students are still locked, in id order, since one student's schedule is
+ * shared by every section they register for.<br>
+ * Carts and swaps span several sections, so they are queued in the mailbox of every section involved. Each mailbox
+ * pauses when it reaches the command, and the command runs once all of them have paused, so it sees every section
+ * at rest. Multi-section commands are queued in one global order, which keeps two of them from each holding a
+ * mailbox the other is waiting for.<br>
+ * Mailboxes are bounded. When a mailbox is full, registrations, carts and swaps are answered with
+ * {@link RegistrationResult#FAILED_TRY_AGAIN_LATER} right away and drops and promotions fail with a
+ * {@link RejectedExecutionException}, instead of queueing without limit. A mailbox also gives up its thread after
+ * {@link SectionActorRegistrationService#BATCH_SIZE} commands, so a busy section cannot hold on to the executor's
+ * threads while other sections wait.
+ */
+public class SectionActorRegistrationService extends RegistrationService {
+    /**
+     * The default number of commands that can wait in a single section's mailbox
+     */
+    public static final int DEFAULT_MAILBOX_CAPACITY = 256;
+    /**
+     * The most commands a mailbox processes before yielding its thread
+     */
+    public static final int BATCH_SIZE = 32;
+
+    /**
+     * Runs mailbox batches
+     */
+    private final Executor executor;
+    private final int mailboxCapacity;
+    /**
+     * A mailbox per section, keyed by CRN
+     */
+    private final Map<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    /**
+     * A lock per student, keyed by student id
+     */
+    private final Map<Long, ReentrantLock> studentLocks = new ConcurrentHashMap<>();
+    /**
+     * Held while queueing a multi-section command, so every mailbox sees those commands in the same order
+     */
+    private final Object multiSectionOrder = new Object();
+
+    /**
+     * Creates a service whose mailboxes run on the common {@link ForkJoinPool}, each holding up to
+     * {@link SectionActorRegistrationService#DEFAULT_MAILBOX_CAPACITY} commands.
+     */
+    public SectionActorRegistrationService() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAILBOX_CAPACITY);
+    }
+
+    /**
+     * @param executor the {@link Executor} mailboxes run on
+     * @param mailboxCapacity the number of commands that can wait in a single section's mailbox
+     * @throws IllegalArgumentException if the mailbox capacity is not positive
+     */
+    public SectionActorRegistrationService(Executor executor, int mailboxCapacity) {
+        if (executor == null || mailboxCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid SectionActorRegistrationService Initialization");
+        }
+        this.executor = executor;
+        this.mailboxCapacity = mailboxCapacity;
+    }
+
+    /**
+     * Queues a registration in the section's mailbox.
+     * @param student the {@link Student} attempting to enroll in a section.
+     * @param section the {@link Section} the student is attempting to enroll in
+     * @return a future for the {@link RegistrationResult}, already completed with
+     * {@link RegistrationResult#FAILED_TRY_AGAIN_LATER} if the section's mailbox is full.
+     * @see RegistrationService#register(Student, Section)
+     */
+    public CompletableFuture<RegistrationResult> registerAsync(Student student, Section section) {
+        var result = new CompletableFuture<RegistrationResult>();
+        var command = command(result, () -> withStudentLocks(List.of(student),
+                () -> super.register(student, section)));
+        if (!getMailbox(section).offer(command)) {
+            result.complete(RegistrationResult.FAILED_TRY_AGAIN_LATER);
+        }
+        return result;
+    }
+
+    /**
+     * Queues a drop in the section's mailbox.
+     * @param student the {@link Student} attempting to drop from a section's enrollment or wait list
+     * @param section the {@link Section} to drop the student from.
+     * @return a future for whether the student was dropped, already failed with a
+     * {@link RejectedExecutionException} if the section's mailbox is full.
+     * @see RegistrationService#drop(Student, Section)
+     */
+    public CompletableFuture<Boolean> dropAsync(Student student, Section section) {
+        var result = new CompletableFuture<Boolean>();
+        var command = command(result, () -> withStudentLocks(
+                ConcurrentRegistrationService.withWaitList(student, section),
+                () -> super.drop(student, section)));
+        if (!getMailbox(section).offer(command)) {
+            result.completeExceptionally(new RejectedExecutionException("Mailbox full for section " + section));
+        }
+        return result;
+    }
+
+    /**
+     * Registers through the section's mailbox and waits for the result.
+     * @see SectionActorRegistrationService#registerAsync(Student, Section)
+     */
+    @Override
+    public RegistrationResult register(Student student, Section section) {
+        return await(registerAsync(student, section));
+    }
+
+    /**
+     * Drops through the section's mailbox and waits for the result.
+     * @throws RejectedExecutionException if the section's mailbox is full
+     * @see SectionActorRegistrationService#dropAsync(Student, Section)
+     */
+    @Override
+    public boolean drop(Student student, Section section) {
+        return await(dropAsync(student, section));
+    }
+
+    /**
+     * Queues a cart registration in the mailbox of every section in the cart.
+     * @param student the {@link Student} registering
+     * @param cart the {@link Section sections} to register for, in order of priority
+     * @return a future for the results, already completed with {@link RegistrationResult#FAILED_TRY_AGAIN_LATER}
+     * for every section if any of the sections' mailboxes is full.
+     * @see RegistrationService#registerAll(Student, List)
+     */
+    public CompletableFuture<List<RegistrationResult>> registerAllAsync(Student student, List<Section> cart) {
+        var result = new CompletableFuture<List<RegistrationResult>>();
+        var command = command(result, () -> withStudentLocks(List.of(student),
+                () -> super.registerAll(student, cart)));
+        if (!offer(cart, command)) {
+            result.complete(Collections.nCopies(cart.size(), RegistrationResult.FAILED_TRY_AGAIN_LATER));
+        }
+        return result;
+    }
+
+    /**
+     * Queues a swap in the mailboxes of both sections.
+     * @param student the {@link Student} swapping sections
+     * @param oldSection the {@link Section} the student is enrolled or wait listed in
+     * @param newSection the {@link Section} the student wants instead
+     * @return a future for the {@link RegistrationResult}, already completed with
+     * {@link RegistrationResult#FAILED_TRY_AGAIN_LATER} if either section's mailbox is full.
+     * @see RegistrationService#swap(Student, Section, Section)
+     */
+    public CompletableFuture<RegistrationResult> swapAsync(Student student, Section oldSection, Section newSection) {
+        var result = new CompletableFuture<RegistrationResult>();
+        var command = command(result, () -> withStudentLocks(
+                ConcurrentRegistrationService.withWaitList(student, oldSection),
+                () -> super.swap(student, oldSection, newSection)));
+        if (!offer(List.of(oldSection, newSection), command)) {
+            result.complete(RegistrationResult.FAILED_TRY_AGAIN_LATER);
+        }
+        return result;
+    }
+
+    /**
+     * Queues a promotion in the section's mailbox.
+     * @param section the {@link Section} to promote students in
+     * @return a future for the promoted students, already failed with a {@link RejectedExecutionException} if the
+     * section's mailbox is full.
+     * @see RegistrationService#promoteFromWaitList(Section)
+     */
+    public CompletableFuture<List<Student>> promoteFromWaitListAsync(Section section) {
+        var result = new CompletableFuture<List<Student>>();
+        var command = command(result, () -> withStudentLocks(new ArrayList<>(section.getWaitListedStudents()),
+                () -> super.promoteFromWaitList(section)));
+        if (!getMailbox(section).offer(command)) {
+            result.completeExceptionally(new RejectedExecutionException("Mailbox full for section " + section));
+        }
+        return result;
+    }
+
+    /**
+     * Queues closing a section in the section's mailbox.
+     * @param section the {@link Section} to close
+     * @return a future for the students who were on the wait list, already failed with a
+     * {@link RejectedExecutionException} if the section's mailbox is full.
+     * @see RegistrationService#closeSection(Section)
+     */
+    public CompletableFuture<List<Student>> closeSectionAsync(Section section) {
+        var result = new CompletableFuture<List<Student>>();
+        var command = command(result, () -> withStudentLocks(new ArrayList<>(section.getWaitListedStudents()),
+                () -> super.closeSection(section)));
+        if (!getMailbox(section).offer(command)) {
+            result.completeExceptionally(new RejectedExecutionException("Mailbox full for section " + section));
+        }
+        return result;
+    }
+
+    /**
+     * Registers a cart through the sections' mailboxes and waits for the results.
+     * @see SectionActorRegistrationService#registerAllAsync(Student, List)
+     */
+    @Override
+    public List<RegistrationResult> registerAll(Student student, List<Section> cart) {
+        return await(registerAllAsync(student, cart));
+    }
+
+    /**
+     * Swaps through the sections' mailboxes and waits for the result.
+     * @see SectionActorRegistrationService#swapAsync(Student, Section, Section)
+     */
+    @Override
+    public RegistrationResult swap(Student student, Section oldSection, Section newSection) {
+        return await(swapAsync(student, oldSection, newSection));
+    }
+
+    /**
+     * Promotes through the section's mailbox and waits for the result.
+     * @throws RejectedExecutionException if the section's mailbox is full
+     * @see SectionActorRegistrationService#promoteFromWaitListAsync(Section)
+     */
+    @Override
+    public List<Student> promoteFromWaitList(Section section) {
+        return await(promoteFromWaitListAsync(section));
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Closes the section through its mailbox and waits for the result.
+     * @throws RejectedExecutionException if the section's mailbox is full
+     * @see SectionActorRegistrationService#closeSectionAsync(Section)
+     */
+    @Override
+    public List<Student> closeSection(Section section) {
+        return await(closeSectionAsync(section));
+    }
+
+    private Mailbox getMailbox(Section section) {
+        return mailboxes.computeIfAbsent(section.getCourseRegistrationNumber(), crn -> new Mailbox());
+    }
+
+    /**
+     * Queues a command that runs once the mailboxes of all of the sections have paused for it.
+     * @return false if any of the mailboxes was full, in which case the command never runs
+     */
+    private boolean offer(Collection<Section> sections, Runnable command) {
+        var involved = sections.stream()
+                .sorted(Comparator.comparingInt(Section::getCourseRegistrationNumber))
+                .map(this::getMailbox)
+                .distinct()
+                .toList();
+        if (involved.isEmpty()) {
+            command.run();
+            return true;
+        }
+        var multiSectionCommand = new MultiSectionCommand(involved.size(), command);
+        synchronized (multiSectionOrder) {
+            for (Mailbox mailbox : involved) {
+                if (!mailbox.offer(() -> multiSectionCommand.arrive(mailbox))) {
+                    multiSectionCommand.cancel();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static <T> Runnable command(CompletableFuture<T> result, Supplier<T> action) {
+        return () -> {
+            try {
+                result.complete(action.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        };
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> T withStudentLocks(Collection<Student> students, Supplier<T> action) {
+        var heldLocks = new ArrayList<ReentrantLock>();
+        try {
+            students.stream()
+                    .map(Student::getId)
+                    .distinct()
+                    .sorted()
+                    .forEach(id -> {
+                        var lock = studentLocks.computeIfAbsent(id, key -> new ReentrantLock());
+                        lock.lock();
+                        heldLocks.add(lock);
+                    });
+            return action.get();
+        } finally {
+            for (int i = heldLocks.size() - 1; i >= 0; i--) {
+                heldLocks.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * A command spanning several mailboxes. Each mailbox pauses when it reaches the command, and the last one to
+     * arrive runs the command and then resumes them all.
+     */
+    private static final class MultiSectionCommand {
+        private final int mailboxCount;
+        private final Runnable command;
+        private final List<Mailbox> arrived = new ArrayList<>();
+        private boolean cancelled;
+
+        MultiSectionCommand(int mailboxCount, Runnable command) {
+            this.mailboxCount = mailboxCount;
+            this.command = command;
+        }
+
+        /**
+         * Called from the mailbox's own batch when it reaches the command
+         */
+        void arrive(Mailbox mailbox) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                mailbox.pause();
+                arrived.add(mailbox);
+                if (arrived.size() < mailboxCount) {
+                    return;
+                }
+            }
+            try {
+                command.run();
+            } finally {
+                arrived.forEach(Mailbox::resume);
+            }
+        }
+
+        /**
+         * Gives up on the command after one of its mailboxes turned it away, resuming any mailbox already paused
+         */
+        void cancel() {
+            List<Mailbox> paused;
+            synchronized (this) {
+                cancelled = true;
+                paused = new ArrayList<>(arrived);
+                arrived.clear();
+            }
+            paused.forEach(Mailbox::resume);
+        }
+    }
+
+    /**
+     * A bounded queue of commands for one section. At most one batch of a mailbox runs at a time, which makes it
+     * the section's single writer. A paused mailbox runs nothing until it is resumed.
+     */
+    private final class Mailbox implements Runnable {
+        private final BlockingQueue<Runnable> commands = new ArrayBlockingQueue<>(mailboxCapacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean paused;
+
+        boolean offer(Runnable command) {
+            if (!commands.offer(command)) {
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        /**
+         * Stops the batch after the current command. Only called from the mailbox's own batch.
+         */
+        void pause() {
+            paused = true;
+        }
+
+        void resume() {
+            paused = false;
+            if (!commands.isEmpty()) {
+                schedule();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable command;
+                for (int i = 0; i < BATCH_SIZE && !paused && (command = commands.poll()) != null; i++) {
+                    command.run();
+                }
+            } finally {
+                scheduled.set(false);
+                if (!paused && !commands.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package sde.virginia.edu.hw4;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+/**
+ * Describes a catalog search, such as "CS courses numbered 3000-3999 on Tuesday/Thursday with open seats". Filters
+ * that aren't set match every section. Each filter method returns this query, so filters can be chained:
+ * <pre>
+ *     new SectionQuery().mnemonic("CS").courseNumberRange(3000, 3999).openSeatsOnly()
+ * </pre>
+ * @see Catalog#search(SectionQuery, int, int)
+ */
+public class SectionQuery {
+    private String mnemonic;
+    private int minCourseNumber = Integer.MIN_VALUE;
+    private int maxCourseNumber = Integer.MAX_VALUE;
+    private Set<DayOfWeek> meetingDays;
+    private int earliestStartTime = 0;
+    private int latestEndTime = Integer.MAX_VALUE;
+    private Lecturer lecturer;
+    private boolean openSeatsOnly;
+
+    /**
+     * Only match sections of courses with this mnemonic (i.e., "CS")
+     * @param mnemonic the course mnemonic
+     * @return this query
+     */
+    public SectionQuery mnemonic(String mnemonic) {
+        this.mnemonic = mnemonic;
+        return this;
+    }
+
+    /**
+     * Only match sections of courses numbered within a range. Course numbers that are not numeric, such as "5999A",
+     * are compared by their leading digits.
+     * @param min the lowest course number to match (inclusive)
+     * @param max the highest course number to match (inclusive)
+     * @return this query
+     */
+    public SectionQuery courseNumberRange(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("Invalid course number range: " + min + "-" + max);
+        }
+        this.minCourseNumber = min;
+        this.maxCourseNumber = max;
+        return this;
+    }
+
+    /**
+     * Only match sections that meet on no days other than these days
+     * @param meetingDays the allowed {@link DayOfWeek days}
+     * @return this query
+     */
+    public SectionQuery meetingDays(Set<DayOfWeek> meetingDays) {
+        this.meetingDays = Set.copyOf(meetingDays);
+        return this;
+    }
+
+    /**
+     * Only match sections that start and end within a window of time, i.e., between 9:00 and 12:00
+     * @return this query
+     */
+    public SectionQuery timeWindow(int startHour, int startMinute, int endHour, int endMinute) {
+        this.earliestStartTime = 60 * startHour + startMinute;
+        this.latestEndTime = 60 * endHour + endMinute;
+        if (latestEndTime < earliestStartTime) {
+            throw new IllegalArgumentException("Invalid time window: end time earlier than start time");
+        }
+        return this;
+    }
+
+    /**
+     * Only match sections taught by this lecturer
+     * @param lecturer the {@link Lecturer}
+     * @return this query
+     */
+    public SectionQuery lecturer(Lecturer lecturer) {
+        this.lecturer = lecturer;
+        return this;
+    }
+
+    /**
+     * Only match sections that have open seats in their enrollment
+     * @return this query
+     * @see Section#isEnrollmentFull()
+     */
+    public SectionQuery openSeatsOnly() {
+        this.openSeatsOnly = true;
+        return this;
+    }
+
+    /**
+     * Get the mnemonic filter
+     * @return the mnemonic, or null if sections of any mnemonic match
+     */
+    public String getMnemonic() {
+        return mnemonic;
+    }
+
+    /**
+     * Get the lecturer filter
+     * @return the {@link Lecturer}, or null if sections taught by any lecturer match
+     */
+    public Lecturer getLecturer() {
+        return lecturer;
+    }
+
+    /**
+     * Checks if a section matches every filter in this query
+     * @param section the {@link Section} to check
+     * @return true if the section matches
+     */
+    public boolean matches(Section section) {
+        var course = section.getCourse();
+        if (mnemonic != null && !mnemonic.equals(course.getMnemonic())) {
+            return false;
+        }
+        if (lecturer != null && !lecturer.equals(section.getLecturer())) {
+            return false;
+        }
+        if (openSeatsOnly && section.isEnrollmentFull()) {
+            return false;
+        }
+        var timeSlot = section.getTimeSlot();
+        if (timeSlot.startTimeInMinutes() < earliestStartTime || timeSlot.endTimeInMinutes() > latestEndTime) {
+            return false;
+        }
+        if (meetingDays != null && !meetingDays.containsAll(timeSlot.days())) {
+            return false;
+        }
+        if (minCourseNumber != Integer.MIN_VALUE || maxCourseNumber != Integer.MAX_VALUE) {
+            var courseNumber = getNumericCourseNumber(course);
+            return courseNumber >= 0 && minCourseNumber <= courseNumber && courseNumber <= maxCourseNumber;
+        }
+        return true;
+    }
+
+    /**
+     * Parses the leading digits of a course number
+     * @return the course number as an int, or -1 if it does not start with a digit
+     */
+    private static int getNumericCourseNumber(Course course) {
+        var courseNumber = course.getCourseNumber();
+        var value = -1;
+        for (int i = 0; i < courseNumber.length() && Character.isDigit(courseNumber.charAt(i)); i++) {
+            value = Math.max(value, 0) * 10 + (courseNumber.charAt(i) - '0');
+        }
+        return value;
+    }
+}
@@ -39,6 +39,11 @@ public class Student {
      */
     private final Transcript transcript;
 
+    /**
+     * The most recently built eligibility profile, rebuilt when the schedule or transcript changes
+     */
+    private EligibilityProfile eligibilityProfile;
+
     /**
      * Creates a new student
      * @param id the student's id number (9-digit number)
@@ -205,6 +210,62 @@ public class Student {
         return schedule.isWaitListedInSection(section);
     }
 
+    /**
+     * Check if student is wait listed in any section of a course
+     * @param course the {@link Course} to check
+     * @return true if the student is wait listed in a section of that course, false if not
+     */
+    public boolean isWaitListedInCourse(Course course) {
+        return schedule.isWaitListedInCourse(course);
+    }
+
+    /**
+     * Get the credit hours of the student's enrolled sections
+     * @see Schedule#getEnrolledCreditHours()
+     */
+    public int getEnrolledCreditHours() {
+        return schedule.getEnrolledCreditHours();
+    }
+
+    /**
+     * Get the credit hours of the student's enrolled and wait listed sections
+     * @see Schedule#getTotalCreditHours()
+     */
+    public int getTotalCreditHours() {
+        return schedule.getTotalCreditHours();
+    }
+
+    /**
+     * Find an enrolled or wait listed section whose time overlaps a time slot
+     * @param timeSlot the {@link TimeSlot} to check
+     * @return the conflicting {@link Section}, or empty if there is none
+     * @see Schedule#getConflictingSection(TimeSlot)
+     */
+    public Optional<Section> getConflictingSection(TimeSlot timeSlot) {
+        return schedule.getConflictingSection(timeSlot);
+    }
+
+    /**
+     * Find an enrolled or wait listed section, other than an excluded one, whose time overlaps a time slot
+     * @param timeSlot the {@link TimeSlot} to check
+     * @param excluded the {@link Section} to leave out
+     * @return the conflicting {@link Section}, or empty if there is none
+     * @see Schedule#getConflictingSection(TimeSlot, Section)
+     */
+    public Optional<Section> getConflictingSection(TimeSlot timeSlot, Section excluded) {
+        return schedule.getConflictingSection(timeSlot, excluded);
+    }
+
+    /**
+     * Find an enrolled section whose time overlaps a time slot
+     * @param timeSlot the {@link TimeSlot} to check
+     * @return the conflicting {@link Section}, or empty if there is none
+     * @see Schedule#getConflictingEnrolledSection(TimeSlot)
+     */
+    public Optional<Section> getConflictingEnrolledSection(TimeSlot timeSlot) {
+        return schedule.getConflictingEnrolledSection(timeSlot);
+    }
+
     /**
      * Get the grade the student received in section
      * @param section a {@link Section} a student has received a grade for.
@@ -270,6 +331,36 @@ public class Student {
         else return Schedule.DEFAULT_CREDIT_LIMIT;
     }
 
+    /**
+     * Gets the student's {@link EligibilityProfile}, reusing the cached profile if neither the student's
+     * {@link Schedule} nor {@link Transcript} has changed since it was built.
+     * @return the student's current eligibility profile
+     */
+    public EligibilityProfile getEligibilityProfile() {
+        if (eligibilityProfile == null) {
+            eligibilityProfile = EligibilityProfile.of(this);
+        } else {
+            eligibilityProfile = eligibilityProfile.refresh(this);
+        }
+        return eligibilityProfile;
+    }
+
+    /**
+     * Gets the version of the student's {@link Schedule}
+     * @see Schedule#getVersion()
+     */
+    public long getScheduleVersion() {
+        return schedule.getVersion();
+    }
+
+    /**
+     * Gets the version of the student's {@link Transcript}
+     * @see Transcript#getVersion()
+     */
+    public long getTranscriptVersion() {
+        return transcript.getVersion();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,13 +1,18 @@
 package sde.virginia.edu.hw4;
 
 import java.time.DayOfWeek;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 /**
  * Represents a time slot for a class, such as MWF 14:00-14:50 (Monday, Wednesday, and Friday starting at 14:00 [2p.m.])
+ * <br>
+ * A time slot stores its times in a packed form: its days as a bitmask and its start and end as minutes since midnight.
+ * The hour and minute accessors are derived from the packed times. {@link TimeSlot#overlapsWith(TimeSlot)} only uses
+ * the packed form, so it is a few integer operations and never allocates.<br>
+ * Times run from 0:00 to 24:00, where 24:00 is only valid as the end of a time slot that runs until midnight.<br>
+ * Time slots are immutable, and most sections share a few standard meeting patterns, so
+ * {@link TimeSlot#of(Set, int, int, int, int)} returns one shared instance for each distinct time slot.
  */
 public class TimeSlot {
 
@@ -16,11 +21,14 @@ public class TimeSlot {
     public static final Set<DayOfWeek> TUESDAY_THURSDAY =
             Set.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY);
     private final Set<DayOfWeek> days;
-    private final int startTimeHour;
-    private final int startTimeMinute;
-    private final int endTimeHour;
-    private final int endTimeMinute;
+    /**
+     * The days, where bit {@code d.ordinal()} is set for each {@link DayOfWeek} {@code d}
+     */
+    private final byte dayMask;
+    private final short startMinutes;
+    private final short endMinutes;
 
+    private static final Interner<TimeSlot> INTERNER = new Interner<>();
 
     public TimeSlot(Set<DayOfWeek> days, int startTimeHour, int startTimeMinute, int endTimeHour, int endTimeMinute) {
         if (days == null) {
@@ -29,56 +37,97 @@ public class TimeSlot {
         if (days.isEmpty()) {
             throw new IllegalArgumentException("Cannot make a TimeSlot with no days");
         }
+        if (days.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Cannot make a TimeSlot with a null day");
+        }
+        if (!isValidTime(startTimeHour, startTimeMinute) || !isValidTime(endTimeHour, endTimeMinute)) {
+            throw new IllegalArgumentException(String.format("Invalid TimeSlot: %d:%02d-%d:%02d is not a time of day",
+                    startTimeHour, startTimeMinute, endTimeHour, endTimeMinute));
+        }
         var startTimeInMinutes = getTimeInMinutes(startTimeHour, startTimeMinute);
         var endTimeInMinutes = getTimeInMinutes(endTimeHour, endTimeMinute);
         if (endTimeInMinutes < startTimeInMinutes) {
             throw new IllegalArgumentException("Invalid TimeSlot: End Time earlier than Start Time");
         }
-        this.days = days;
-        this.startTimeHour = startTimeHour;
-        this.startTimeMinute = startTimeMinute;
-        this.endTimeHour = endTimeHour;
-        this.endTimeMinute = endTimeMinute;
+        this.days = Set.copyOf(days);
+        this.dayMask = toDayMask(days);
+        this.startMinutes = (short) startTimeInMinutes;
+        this.endMinutes = (short) endTimeInMinutes;
+    }
+
+    /**
+     * Gets the shared instance of a time slot. Equal time slots made through this factory are the same object.
+     * @param days the days the time slot meets on
+     * @param startTimeHour the hour the time slot starts
+     * @param startTimeMinute the minute the time slot starts
+     * @param endTimeHour the hour the time slot ends
+     * @param endTimeMinute the minute the time slot ends
+     * @return the canonical {@link TimeSlot} for those values
+     * @throws IllegalArgumentException under the same conditions as the constructor
+     */
+    public static TimeSlot of(Set<DayOfWeek> days, int startTimeHour, int startTimeMinute, int endTimeHour,
+                              int endTimeMinute) {
+        return INTERNER.intern(new TimeSlot(days, startTimeHour, startTimeMinute, endTimeHour, endTimeMinute));
+    }
+
+    private static byte toDayMask(Set<DayOfWeek> days) {
+        var mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << day.ordinal();
+        }
+        return (byte) mask;
     }
 
     public Set<DayOfWeek> days() {
-        return Collections.unmodifiableSet(days);
+        return days;
     }
 
     public boolean overlapsWith(TimeSlot other) {
-        var thisDays = new HashSet<DayOfWeek>(this.days);
-        var otherDays = new HashSet<DayOfWeek>(other.days);
-        thisDays.retainAll(otherDays);
-        if (thisDays.isEmpty()) {
+        if ((dayMask & other.dayMask) == 0) {
             return false;
         }
-        var thisStartTime = getTimeInMinutes(startTimeHour, startTimeMinute);
-        var thisEndTime = getTimeInMinutes(endTimeHour, endTimeMinute);
-        var otherStartTime = getTimeInMinutes(other.startTimeHour, other.startTimeMinute);
-        var otherEndTime = getTimeInMinutes(other.endTimeHour, other.endTimeMinute);
+        return (other.startMinutes <= startMinutes && startMinutes < other.endMinutes) ||
+                (startMinutes <= other.startMinutes && other.startMinutes < endMinutes);
+    }
 
-        return (otherStartTime <= thisStartTime && thisStartTime < otherEndTime) ||
-                (thisStartTime <= otherStartTime && otherStartTime < thisEndTime);
+    private static boolean isValidTime(int hour, int minute) {
+        return hour >= 0 && minute >= 0 && minute < 60 && (hour < 24 || (hour == 24 && minute == 0));
     }
 
     private static int getTimeInMinutes(int hour, int minutes) {
         return 60 * hour + minutes;
     }
 
+    /**
+     * Get the start time as minutes since midnight, i.e., 9:30 is 570
+     * @return the start time in minutes
+     */
+    public int startTimeInMinutes() {
+        return startMinutes;
+    }
+
+    /**
+     * Get the end time as minutes since midnight, i.e., 10:45 is 645
+     * @return the end time in minutes
+     */
+    public int endTimeInMinutes() {
+        return endMinutes;
+    }
+
     public int startTimeHour() {
-        return startTimeHour;
+        return startMinutes / 60;
     }
 
     public int startTimeMinute() {
-        return startTimeMinute;
+        return startMinutes % 60;
     }
 
     public int endTimeHour() {
-        return endTimeHour;
+        return endMinutes / 60;
     }
 
     public int endTimeMinute() {
-        return endTimeMinute;
+        return endMinutes % 60;
     }
 
     @Override
@@ -86,26 +135,24 @@ public class TimeSlot {
         if (obj == this) return true;
         if (obj == null || obj.getClass() != this.getClass()) return false;
         var that = (TimeSlot) obj;
-        return Objects.equals(this.days, that.days) &&
-                this.startTimeHour == that.startTimeHour &&
-                this.startTimeMinute == that.startTimeMinute &&
-                this.endTimeHour == that.endTimeHour &&
-                this.endTimeMinute == that.endTimeMinute;
+        return this.dayMask == that.dayMask &&
+                this.startMinutes == that.startMinutes &&
+                this.endMinutes == that.endMinutes;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(days, startTimeHour, startTimeMinute, endTimeHour, endTimeMinute);
+        return (dayMask * 31 + startMinutes) * 31 + endMinutes;
     }
 
     @Override
     public String toString() {
         return "TimeSlot[" +
                 "days=" + days + ", " +
-                "startTimeHour=" + startTimeHour + ", " +
-                "startTimeMinute=" + startTimeMinute + ", " +
-                "endTimeHour=" + endTimeHour + ", " +
-                "endTimeMinute=" + endTimeMinute + ']';
+                "startTimeHour=" + startTimeHour() + ", " +
+                "startTimeMinute=" + startTimeMinute() + ", " +
+                "endTimeHour=" + endTimeHour() + ", " +
+                "endTimeMinute=" + endTimeMinute() + ']';
     }
 
 }
@@ -17,6 +17,12 @@ public class Transcript {
      */
     private final Map<Section, Grade> history;
 
+    /**
+     * Incremented on every change to the history, so cached values derived from the transcript can tell when they
+     * are stale.
+     */
+    private long version;
+
     /**
      * Creates a new empty Transcript
      */
@@ -66,6 +72,16 @@ public class Transcript {
      */
     public void add(Section section, Grade grade) {
         history.put(section, grade);
+        version++;
+    }
+
+    /**
+     * Gets the transcript's version, which changes every time a grade is added or changed.
+     * @return the version stamp
+     * @see EligibilityProfile
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
@@ -0,0 +1,162 @@
+package sde.virginia.edu.hw4;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A first-in, first-out wait list of {@link Student students}. Unlike an {@link java.util.ArrayList}, checking
+ * whether a student is on the list, removing a student from anywhere in the list, appending, and reading the head
+ * all take constant time.<br>
+ * {@link WaitList#indexOf(Object) A student's position} is also constant time while students only join at the
+ * back and leave from the front, which is how a wait list normally moves. Removing a student from the middle of the
+ * list marks the positions stale, and the next position query renumbers the list once.<br>
+ * A student can only be on the list once, so adding a student who is already on it leaves the list unchanged.
+ * Indexed access other than {@code get(0)} walks the list.
+ */
+public class WaitList extends AbstractList<Student> {
+    /**
+     * The students in wait list order, mapped to their rank. While {@link WaitList#ranksValid} is true, ranks are
+     * consecutive from {@link WaitList#headRank}, so a student's position is its rank minus the head's.
+     */
+    private final LinkedHashMap<Student, Integer> ranks = new LinkedHashMap<>();
+    private int headRank;
+    private boolean ranksValid = true;
+
+    /**
+     * Creates an empty wait list
+     */
+    public WaitList() {
+    }
+
+    @Override
+    public boolean add(Student student) {
+        if (ranks.containsKey(student)) {
+            return false;
+        }
+        ranks.put(student, headRank + ranks.size());
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Student get(int index) {
+        if (index < 0 || index >= ranks.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + ranks.size());
+        }
+        var iterator = ranks.keySet().iterator();
+        for (int i = 0; i < index; i++) {
+            iterator.next();
+        }
+        return iterator.next();
+    }
+
+    @Override
+    public Student remove(int index) {
+        var student = get(index);
+        remove(student);
+        return student;
+    }
+
+    @Override
+    public boolean remove(Object student) {
+        var rank = ranks.remove(student);
+        if (rank == null) {
+            return false;
+        }
+        removed(rank);
+        return true;
+    }
+
+    private void removed(int rank) {
+        if (rank == headRank) {
+            headRank++;
+        } else if (rank != headRank + ranks.size()) {
+            // only removing the head or the tail keeps the ranks consecutive
+            ranksValid = false;
+        }
+        modCount++;
+    }
+
+    @Override
+    public boolean contains(Object student) {
+        return ranks.containsKey(student);
+    }
+
+    /**
+     * Gets a student's position on the wait list
+     * @param student the student to find
+     * @return the student's 0-based position, where 0 is the head of the list, or -1 if the student is not on the
+     * list.
+     */
+    @Override
+    public int indexOf(Object student) {
+        var rank = ranks.get(student);
+        if (rank == null) {
+            return -1;
+        }
+        if (!ranksValid) {
+            renumber();
+            rank = ranks.get(student);
+        }
+        return rank - headRank;
+    }
+
+    @Override
+    public int lastIndexOf(Object student) {
+        return indexOf(student);
+    }
+
+    @Override
+    public int size() {
+        return ranks.size();
+    }
+
+    @Override
+    public void clear() {
+        ranks.clear();
+        headRank = 0;
+        ranksValid = true;
+        modCount++;
+    }
+
+    @Override
+    public Iterator<Student> iterator() {
+        var iterator = ranks.keySet().iterator();
+        return new Iterator<>() {
+            private Student last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Student next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                var rank = ranks.get(last);
+                iterator.remove();
+                removed(rank);
+                last = null;
+            }
+        };
+    }
+
+    private void renumber() {
+        var rank = 0;
+        for (Map.Entry<Student, Integer> entry : ranks.entrySet()) {
+            entry.setValue(rank++);
+        }
+        headRank = 0;
+        ranksValid = true;
+    }
+}
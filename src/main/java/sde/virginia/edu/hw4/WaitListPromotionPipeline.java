@@ -0,0 +1,114 @@
+package sde.virginia.edu.hw4;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Promotes students from wait lists in the background, so a drop does not wait for the wait list to be processed.
+ * Sections are {@link WaitListPromotionPipeline#submit(Section) submitted} when a seat frees up. A section that is
+ * submitted again before its promotion has started is not queued twice, so several drops from the same section
+ * are handled by a single promotion that fills all of the free seats.<br>
+ * The pipeline reports its queue depth (sections waiting for promotion) and promotion lag (time from a section's
+ * first submission until its promotion finished).
+ * @see RegistrationService#promoteFromWaitList(Section)
+ */
+public class WaitListPromotionPipeline {
+    /**
+     * Fills a section's free seats and returns the students promoted
+     */
+    private final Function<Section, List<Student>> promoter;
+    private final Executor executor;
+    /**
+     * Sections waiting for promotion, mapped to the {@link System#nanoTime()} of their first submission
+     */
+    private final Map<Section, Long> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong promotedStudents = new AtomicLong();
+    private volatile long lastLagNanos;
+    private final AtomicLong maxLagNanos = new AtomicLong();
+
+    /**
+     * @param promoter fills a section's free seats from its wait list, returning the promoted students. It must be
+     * safe to call from the executor's threads.
+     * @param executor the {@link Executor} promotions run on
+     */
+    public WaitListPromotionPipeline(Function<Section, List<Student>> promoter, Executor executor) {
+        if (promoter == null || executor == null) {
+            throw new IllegalArgumentException("Invalid WaitListPromotionPipeline Initialization");
+        }
+        this.promoter = promoter;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a section for promotion, unless it is already waiting.
+     * @param section the {@link Section} with free seats
+     * @return true if the section is waiting for promotion, false if the executor rejected the promotion. A rejected
+     * section is not left waiting, so a later submission tries the executor again.
+     */
+    public boolean submit(Section section) {
+        var submitted = System.nanoTime();
+        if (pending.putIfAbsent(section, submitted) != null) {
+            return true;
+        }
+        try {
+            executor.execute(() -> promote(section));
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(section, submitted);
+            return false;
+        }
+    }
+
+    private void promote(Section section) {
+        var submitted = pending.remove(section);
+        var promoted = promoter.apply(section);
+        var lag = System.nanoTime() - submitted;
+        batches.incrementAndGet();
+        promotedStudents.addAndGet(promoted.size());
+        lastLagNanos = lag;
+        maxLagNanos.accumulateAndGet(lag, Math::max);
+    }
+
+    /**
+     * Gets the number of sections waiting for promotion
+     */
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    /**
+     * Gets the number of promotions run. Each promotion handles every drop coalesced into it.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Gets the total number of students promoted
+     */
+    public long getPromotedCount() {
+        return promotedStudents.get();
+    }
+
+    /**
+     * Gets the lag of the most recent promotion, from the section's first submission until the promotion finished
+     */
+    public Duration getLastPromotionLag() {
+        return Duration.ofNanos(lastLagNanos);
+    }
+
+    /**
+     * Gets the longest promotion lag seen so far
+     */
+    public Duration getMaxPromotionLag() {
+        return Duration.ofNanos(maxLagNanos.get());
+    }
+}
@@ -0,0 +1,159 @@
+package sde.virginia.edu.hw4;
+
+import java.time.DayOfWeek;
+
+/**
+ * A compact bitmap of which parts of the week are occupied, at {@link WeeklyOccupancy#MINUTES_PER_SLOT}-minute
+ * granularity. Each {@link TimeSlot} marked in the bitmap occupies every slot it touches on each of its days.<br>
+ * Because slots are coarser than minutes, {@link WeeklyOccupancy#intersects(TimeSlot)} can report a hit for two
+ * time slots that share a slot without actually overlapping (for example, one ending at 10:02 and the other starting
+ * at 10:03). A miss, however, always means there is no overlap, so callers use the bitmap to rule out conflicts
+ * cheaply and confirm hits with {@link TimeSlot#overlapsWith(TimeSlot)}.
+ */
+public class WeeklyOccupancy {
+    /**
+     * The number of minutes represented by a single bit
+     */
+    public static final int MINUTES_PER_SLOT = 5;
+    private static final int SLOTS_PER_DAY = 24 * 60 / MINUTES_PER_SLOT;
+    private static final int SLOTS_PER_WEEK = SLOTS_PER_DAY * DayOfWeek.values().length;
+
+    /**
+     * The occupied slots, where bit {@code i} of the week is bit {@code i % 64} of {@code words[i / 64]}
+     */
+    private final long[] words;
+
+    /**
+     * Creates an empty (completely free) week
+     */
+    public WeeklyOccupancy() {
+        this.words = new long[(SLOTS_PER_WEEK + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /**
+     * Marks the slots covered by a {@link TimeSlot} as occupied
+     * @param timeSlot the {@link TimeSlot} to mark
+     */
+    public void mark(TimeSlot timeSlot) {
+        for (DayOfWeek day : timeSlot.days()) {
+            setRange(firstSlot(day, timeSlot), lastSlot(day, timeSlot) + 1, true);
+        }
+    }
+
+    /**
+     * Marks the slots covered by a {@link TimeSlot} as free. Any other time slot sharing those slots must be
+     * {@link WeeklyOccupancy#mark(TimeSlot) marked} again afterward.
+     * @param timeSlot the {@link TimeSlot} to clear
+     */
+    public void clear(TimeSlot timeSlot) {
+        for (DayOfWeek day : timeSlot.days()) {
+            setRange(firstSlot(day, timeSlot), lastSlot(day, timeSlot) + 1, false);
+        }
+    }
+
+    /**
+     * Marks the slots covered by a removed section's {@link TimeSlot} as free, keeping the slots still used by the
+     * remaining sections occupied. Only remaining sections that share a slot with the removed one are marked again;
+     * the rest cannot have lost any bits.
+     * @param timeSlot the {@link TimeSlot} to clear
+     * @param remaining the {@link Section sections} still marked in this bitmap
+     */
+    public void clear(TimeSlot timeSlot, Iterable<Section> remaining) {
+        clear(timeSlot);
+        for (Section section : remaining) {
+            var other = section.getTimeSlot();
+            if (sharesSlot(timeSlot, other)) {
+                mark(other);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a {@link TimeSlot} touches any occupied slot.
+     * @param timeSlot the {@link TimeSlot} to check
+     * @return false if the time slot cannot overlap anything marked. True if it might.
+     */
+    public boolean intersects(TimeSlot timeSlot) {
+        for (DayOfWeek day : timeSlot.days()) {
+            if (anyInRange(firstSlot(day, timeSlot), lastSlot(day, timeSlot) + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if no slot in the week is occupied
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if two time slots touch a common slot on some day they share
+     */
+    private static boolean sharesSlot(TimeSlot first, TimeSlot second) {
+        for (DayOfWeek day : first.days()) {
+            if (second.days().contains(day)) {
+                return firstSlot(day, first) <= lastSlot(day, second) && firstSlot(day, second) <= lastSlot(day, first);
+            }
+        }
+        return false;
+    }
+
+    private static int firstSlot(DayOfWeek day, TimeSlot timeSlot) {
+        return dayOffset(day) + Math.min(timeSlot.startTimeInMinutes() / MINUTES_PER_SLOT, SLOTS_PER_DAY - 1);
+    }
+
+    private static int lastSlot(DayOfWeek day, TimeSlot timeSlot) {
+        var start = timeSlot.startTimeInMinutes();
+        var lastMinute = Math.max(start, timeSlot.endTimeInMinutes() - 1);
+        return dayOffset(day) + Math.min(lastMinute / MINUTES_PER_SLOT, SLOTS_PER_DAY - 1);
+    }
+
+    private static int dayOffset(DayOfWeek day) {
+        return (day.getValue() - 1) * SLOTS_PER_DAY;
+    }
+
+    /**
+     * Sets or clears the bits in [from, to)
+     */
+    private void setRange(int from, int to, boolean value) {
+        for (int word = from / Long.SIZE; word <= (to - 1) / Long.SIZE; word++) {
+            var mask = rangeMask(word, from, to);
+            if (value) {
+                words[word] |= mask;
+            } else {
+                words[word] &= ~mask;
+            }
+        }
+    }
+
+    /**
+     * Checks if any bit in [from, to) is set
+     */
+    private boolean anyInRange(int from, int to) {
+        for (int word = from / Long.SIZE; word <= (to - 1) / Long.SIZE; word++) {
+            if ((words[word] & rangeMask(word, from, to)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The bits of a given word that fall within [from, to)
+     */
+    private static long rangeMask(int word, int from, int to) {
+        var wordStart = word * Long.SIZE;
+        var low = Math.max(from, wordStart) - wordStart;
+        var high = Math.min(to, wordStart + Long.SIZE) - wordStart;
+        var upperMask = high == Long.SIZE ? -1L : (1L << high) - 1;
+        return upperMask & (-1L << low);
+    }
+}
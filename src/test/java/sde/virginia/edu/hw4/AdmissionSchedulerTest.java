@@ -0,0 +1,217 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sde.virginia.edu.hw4.AdmissionScheduler.Admission.*;
+import static sde.virginia.edu.hw4.RegistrationService.RegistrationResult.*;
+
+class AdmissionSchedulerTest {
+    private static final Instant OPENS = Instant.parse("2023-04-03T07:00:00Z");
+
+    private MutableClock clock;
+    private AdmissionScheduler scheduler;
+    private Student fourthYear, secondYear;
+    private Section section;
+
+    private static class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        synchronized void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock(OPENS);
+        scheduler = new AdmissionScheduler(new RegistrationService(), OPENS, Duration.ofDays(1), 2, 2,
+                Duration.ZERO, clock);
+        fourthYear = new Student(123456789, "abc2def", "John", "Doe", 4);
+        secondYear = new Student(987654321, "zyx9wv", "Jane", "Doe", 2);
+        section = new Section(10001, 1, new Course(1, "CS", "3140", "Software Development Essentials", 3),
+                new Semester(Term.FALL, 2023), new Location("Rice Hall", "130", 100),
+                new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45),
+                new Lecturer(1, "pm8fc", "Paul", "McBurney"), 10, 10);
+    }
+
+    @Test
+    void getWindowStart() {
+        assertEquals(OPENS, scheduler.getWindowStart(fourthYear));
+        assertEquals(OPENS.plus(Duration.ofDays(2)), scheduler.getWindowStart(secondYear));
+        assertEquals(OPENS, scheduler.getWindowStart(new Student(1, "a", "b", "c", 5)));
+    }
+
+    @Test
+    void isInWindow() {
+        assertTrue(scheduler.isInWindow(fourthYear));
+        assertFalse(scheduler.isInWindow(secondYear));
+
+        clock.advance(Duration.ofDays(2));
+        assertTrue(scheduler.isInWindow(secondYear));
+    }
+
+    @Test
+    void tryAdmit_tokenBucket() {
+        assertEquals(ADMITTED, scheduler.tryAdmit(fourthYear));
+        assertEquals(ADMITTED, scheduler.tryAdmit(fourthYear));
+        assertEquals(THROTTLED, scheduler.tryAdmit(fourthYear));
+
+        clock.advance(Duration.ofMillis(500));
+        assertEquals(ADMITTED, scheduler.tryAdmit(fourthYear));
+        assertEquals(THROTTLED, scheduler.tryAdmit(fourthYear));
+    }
+
+    @Test
+    void tryAdmit_burstCapped() {
+        clock.advance(Duration.ofMinutes(1));
+
+        assertEquals(ADMITTED, scheduler.tryAdmit(fourthYear));
+        assertEquals(ADMITTED, scheduler.tryAdmit(fourthYear));
+        assertEquals(THROTTLED, scheduler.tryAdmit(fourthYear));
+    }
+
+    @Test
+    void tryAdmit_outsideWindow() {
+        assertEquals(OUTSIDE_WINDOW, scheduler.tryAdmit(secondYear));
+    }
+
+    @Test
+    void admit_waitsForToken() {
+        scheduler = new AdmissionScheduler(new RegistrationService(), OPENS, Duration.ofDays(1), 2, 1,
+                Duration.ofSeconds(1), clock, clock::advance);
+
+        assertEquals(ADMITTED, scheduler.admit(fourthYear));
+        assertEquals(ADMITTED, scheduler.admit(fourthYear));
+        assertEquals(OPENS.plusMillis(500), clock.instant());
+    }
+
+    @Test
+    void admit_throttledPastMaxWait() {
+        scheduler = new AdmissionScheduler(new RegistrationService(), OPENS, Duration.ofDays(1), 2, 1,
+                Duration.ofMillis(499), clock, clock::advance);
+
+        assertEquals(ADMITTED, scheduler.admit(fourthYear));
+        assertEquals(THROTTLED, scheduler.admit(fourthYear));
+        assertEquals(OPENS, clock.instant());
+    }
+
+    @Test
+    void admit_firstComeFirstServed() throws InterruptedException {
+        var permits = new Semaphore(0);
+        scheduler = new AdmissionScheduler(new RegistrationService(), OPENS, Duration.ofDays(1), 1, 1,
+                Duration.ofSeconds(30), clock, duration -> {
+                    permits.acquire();
+                    clock.advance(duration);
+                });
+        scheduler.tryAdmit(fourthYear);
+        var admitted = Collections.synchronizedList(new ArrayList<Integer>());
+        var students = new ArrayList<Thread>();
+        for (int i = 0; i < 3; i++) {
+            var order = i;
+            var student = new Thread(() -> {
+                if (scheduler.admit(fourthYear) == ADMITTED) {
+                    admitted.add(order);
+                }
+            });
+            students.add(student);
+            student.start();
+            // the first student waits on the bucket, and each later student queues behind the ones before it
+            while (i == 0 ? student.getState() != Thread.State.WAITING : scheduler.getQueueLength() < i) {
+                Thread.onSpinWait();
+            }
+        }
+
+        for (Thread student : students) {
+            permits.release();
+            student.join(5000);
+            assertFalse(student.isAlive());
+        }
+
+        assertEquals(List.of(0, 1, 2), admitted);
+    }
+
+    @Test
+    void admit_queuedPastMaxWaitByClock() throws InterruptedException {
+        var permits = new Semaphore(0);
+        scheduler = new AdmissionScheduler(new RegistrationService(), OPENS, Duration.ofDays(1), 1, 1,
+                Duration.ofSeconds(30), clock, duration -> {
+                    permits.acquire();
+                    clock.advance(duration);
+                });
+        scheduler.tryAdmit(fourthYear);
+        var first = new ArrayList<AdmissionScheduler.Admission>();
+        var second = new ArrayList<AdmissionScheduler.Admission>();
+        var front = new Thread(() -> first.add(scheduler.admit(fourthYear)));
+        front.start();
+        while (front.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        var queued = new Thread(() -> second.add(scheduler.admit(fourthYear)));
+        queued.start();
+        while (scheduler.getQueueLength() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // tokens have refilled, but the student at the front is still waiting on the bucket
+        clock.advance(Duration.ofSeconds(31));
+        assertEquals(THROTTLED, scheduler.tryAdmit(fourthYear));
+        permits.release();
+        front.join(5000);
+        queued.join(5000);
+
+        assertEquals(List.of(ADMITTED), first);
+        assertEquals(List.of(THROTTLED), second);
+    }
+
+    @Test
+    void register() {
+        assertEquals(SUCCESS_ENROLLED, scheduler.register(fourthYear, section));
+        assertEquals(FAILED_OUTSIDE_REGISTRATION_WINDOW, scheduler.register(secondYear, section));
+    }
+
+    @Test
+    void register_throttled() {
+        scheduler.tryAdmit(fourthYear);
+        scheduler.tryAdmit(fourthYear);
+
+        assertEquals(FAILED_TRY_AGAIN_LATER, scheduler.register(fourthYear, section));
+        assertFalse(section.isStudentEnrolled(fourthYear));
+    }
+
+    @Test
+    void constructor_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionScheduler(new RegistrationService(), OPENS,
+                Duration.ofDays(1), 0, 1, Duration.ZERO, clock));
+    }
+}
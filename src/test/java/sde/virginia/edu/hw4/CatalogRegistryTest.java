@@ -0,0 +1,148 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogRegistryTest {
+    private Semester fall2023;
+    private List<Semester> loadedSemesters;
+    private CatalogRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        fall2023 = new Semester(Term.FALL, 2023);
+        loadedSemesters = new ArrayList<>();
+        registry = new CatalogRegistry(fall2023, semester -> {
+            loadedSemesters.add(semester);
+            return new Catalog(semester);
+        });
+    }
+
+    @Test
+    void nextSemester() {
+        assertEquals(new Semester(Term.JANUARY, 2024), CatalogRegistry.nextSemester(fall2023));
+        assertEquals(new Semester(Term.SUMMER_1, 2024),
+                CatalogRegistry.nextSemester(new Semester(Term.SPRING, 2024)));
+    }
+
+    @Test
+    void chronologicalOrder() {
+        var semesters = new ArrayList<>(List.of(new Semester(Term.SPRING, 2024), fall2023,
+                new Semester(Term.JANUARY, 2024)));
+
+        semesters.sort(CatalogRegistry.CHRONOLOGICAL_ORDER);
+
+        assertEquals(List.of(fall2023, new Semester(Term.JANUARY, 2024), new Semester(Term.SPRING, 2024)),
+                semesters);
+    }
+
+    @Test
+    void getCatalog_lazy() {
+        assertFalse(registry.isLoaded(fall2023));
+        assertTrue(loadedSemesters.isEmpty());
+
+        var catalog = registry.getCurrentCatalog();
+
+        assertEquals(fall2023, catalog.getSemester());
+        assertEquals(List.of(fall2023), loadedSemesters);
+        assertTrue(registry.isLoaded(fall2023));
+    }
+
+    @Test
+    void getCatalog_cached() {
+        var catalog = registry.getCurrentCatalog();
+
+        assertSame(catalog, registry.getCatalog(fall2023));
+        assertEquals(1, loadedSemesters.size());
+    }
+
+    @Test
+    void getCatalog_historical() {
+        var spring2020 = new Semester(Term.SPRING, 2020);
+
+        assertEquals(spring2020, registry.getCatalog(spring2020).getSemester());
+        assertEquals(List.of(spring2020), loadedSemesters);
+    }
+
+    @Test
+    void getCatalog_wrongSemester() {
+        registry = new CatalogRegistry(fall2023, semester -> new Catalog(fall2023));
+
+        assertThrows(IllegalStateException.class, () -> registry.getCatalog(new Semester(Term.SPRING, 2020)));
+    }
+
+    @Test
+    void put() {
+        var catalog = new Catalog(CatalogRegistry.nextSemester(fall2023));
+
+        registry.put(catalog);
+
+        assertSame(catalog, registry.getNextCatalog());
+        assertTrue(loadedSemesters.isEmpty());
+    }
+
+    @Test
+    void setCurrentSemester() {
+        var spring2024 = new Semester(Term.SPRING, 2024);
+        registry.getCurrentCatalog();
+
+        registry.setCurrentSemester(spring2024);
+
+        assertEquals(spring2024, registry.getCurrentSemester());
+        assertEquals(fall2023, registry.getCatalog(fall2023).getSemester());
+        assertEquals(spring2024, registry.getCurrentCatalog().getSemester());
+    }
+
+    @Test
+    void getCatalog_loadsOutsideLockOnce() throws Exception {
+        var spring2020 = new Semester(Term.SPRING, 2020);
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var loads = new AtomicInteger();
+        registry = new CatalogRegistry(fall2023, semester -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Catalog(semester);
+        });
+
+        var first = CompletableFuture.supplyAsync(() -> registry.getCatalog(spring2020));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        var second = CompletableFuture.supplyAsync(() -> registry.getCatalog(spring2020));
+        var next = new Catalog(CatalogRegistry.nextSemester(fall2023));
+        registry.put(next);
+        assertSame(next, registry.getNextCatalog());
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getCatalog_failedLoadRetried() {
+        var spring2020 = new Semester(Term.SPRING, 2020);
+        var loads = new AtomicInteger();
+        registry = new CatalogRegistry(fall2023, semester -> {
+            if (loads.getAndIncrement() == 0) {
+                throw new IllegalStateException("unavailable");
+            }
+            return new Catalog(semester);
+        });
+
+        assertThrows(IllegalStateException.class, () -> registry.getCatalog(spring2020));
+        assertEquals(spring2020, registry.getCatalog(spring2020).getSemester());
+    }
+}
@@ -0,0 +1,314 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sde.virginia.edu.hw4.CatalogService.BulkAddMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static sde.virginia.edu.hw4.CatalogService.AddSectionResult.*;
+
+class CatalogServiceTest {
+    private Semester semester;
+    private Catalog catalog;
+    private CatalogService catalogService;
+
+    private Course sde, algorithms;
+    private Location rice130, olsson120;
+    private Lecturer mcburney, horton;
+    private TimeSlot tuesdayThursdayMorning, tuesdayThursdayAfternoon;
+
+    @BeforeEach
+    void setup() {
+        semester = new Semester(Term.FALL, 2023);
+        catalog = new Catalog(semester);
+        catalogService = new CatalogService(catalog);
+
+        sde = new Course(1, "CS", "3140", "Software Development Essentials", 3);
+        algorithms = new Course(2, "CS", "4102", "Algorithms", 3);
+        rice130 = new Location("Rice Hall", "130", 100);
+        olsson120 = new Location("Olsson Hall", "120", 100);
+        mcburney = new Lecturer(1, "pm8fc", "Paul", "McBurney");
+        horton = new Lecturer(2, "dh2aa", "Tom", "Horton");
+        tuesdayThursdayMorning = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        tuesdayThursdayAfternoon = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 14, 0, 15, 15);
+    }
+
+    private Section section(int crn, int sectionNumber, Course course, Location location, TimeSlot timeSlot,
+                            Lecturer lecturer) {
+        return TestSections.section(crn).sectionNumber(sectionNumber).course(course).location(location)
+                .timeSlot(timeSlot).lecturer(lecturer).build();
+    }
+
+    @Test
+    void add_successful() {
+        var section = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+
+        assertEquals(SUCCESSFUL, catalogService.add(section));
+        assertTrue(catalog.contains(section));
+    }
+
+    @Test
+    void add_semesterMismatch() {
+        var section = new Section(10001, 1, sde, new Semester(Term.SPRING, 2024), rice130,
+                tuesdayThursdayMorning, mcburney, 50, 10);
+
+        assertEquals(FAILED_SEMESTER_MISMATCH, catalogService.add(section));
+        assertFalse(catalog.contains(section));
+    }
+
+    @Test
+    void add_alreadyExists() {
+        var section = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+        catalogService.add(section);
+
+        assertEquals(FAILED_SECTION_ALREADY_EXISTS, catalogService.add(section));
+    }
+
+    @Test
+    void add_crnConflict() {
+        catalogService.add(section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney));
+        var conflicting = section(10001, 1, algorithms, olsson120, tuesdayThursdayAfternoon, horton);
+
+        assertEquals(FAILED_CRN_CONFLICT, catalogService.add(conflicting));
+        assertFalse(catalog.contains(conflicting));
+    }
+
+    @Test
+    void add_locationConflict() {
+        catalogService.add(section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney));
+        var conflicting = section(10002, 1, algorithms, rice130, tuesdayThursdayMorning, horton);
+
+        assertEquals(FAILED_LOCATION_CONFLICT, catalogService.add(conflicting));
+        assertFalse(catalog.contains(conflicting));
+    }
+
+    @Test
+    void add_lecturerConflict() {
+        catalogService.add(section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney));
+        var conflicting = section(10002, 1, algorithms, olsson120, tuesdayThursdayMorning, mcburney);
+
+        assertEquals(FAILED_LECTURER_CONFLICT, catalogService.add(conflicting));
+        assertFalse(catalog.contains(conflicting));
+    }
+
+    @Test
+    void add_sameLocationAndLecturer_differentTimes() {
+        catalogService.add(section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney));
+        var section = section(10002, 2, sde, rice130, tuesdayThursdayAfternoon, mcburney);
+
+        assertEquals(SUCCESSFUL, catalogService.add(section));
+    }
+
+    @Test
+    void add_enrollmentNotEmpty() {
+        var section = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+        section.addStudentToEnrollment(new Student(123456789, "abc2def", "John", "Doe", 1));
+
+        assertEquals(FAILED_ENROLLMENT_NOT_EMPTY, catalogService.add(section));
+        assertFalse(catalog.contains(section));
+    }
+
+    @Test
+    void add_locationConflict_afterRemove() {
+        var section = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+        catalogService.add(section);
+        catalog.remove(section);
+
+        assertEquals(SUCCESSFUL, catalogService.add(section(10002, 1, algorithms, rice130,
+                tuesdayThursdayMorning, horton)));
+    }
+
+    @Test
+    void add_lecturerConflict_afterRemove() {
+        var section = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+        catalogService.add(section);
+        catalogService.removeSection(section);
+
+        assertEquals(SUCCESSFUL, catalogService.add(section(10002, 1, algorithms, olsson120,
+                tuesdayThursdayMorning, mcburney)));
+    }
+
+    @Test
+    void add_lecturerConflict_sameSlotDifferentMinutes() {
+        catalogService.add(section(10001, 1, sde, rice130,
+                new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 2), mcburney));
+        var section = section(10002, 1, algorithms, olsson120,
+                new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 3, 11, 0), mcburney);
+
+        assertEquals(SUCCESSFUL, catalogService.add(section));
+    }
+
+    @Test
+    void removeSection() {
+        var section = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+        section.setEnrollmentCapacity(1);
+        catalogService.add(section);
+        var enrolled = new Student(123456789, "abc2def", "John", "Doe", 1);
+        var waitListed = new Student(987654321, "zyx9wv", "Jane", "Doe", 1);
+        section.addStudentToEnrollment(enrolled);
+        enrolled.addEnrolledSection(section);
+        section.addStudentToWaitList(waitListed);
+        waitListed.addWaitListedSection(section);
+
+        catalogService.removeSection(section);
+
+        assertFalse(catalog.contains(section));
+        assertFalse(enrolled.isEnrolledInSection(section));
+        assertFalse(waitListed.isWaitListedInSection(section));
+    }
+
+    @Test
+    void removeSection_exception() {
+        var section = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+
+        assertThrows(IllegalArgumentException.class, () -> catalogService.removeSection(section));
+    }
+
+    @Test
+    void addAll_bestEffort() {
+        var first = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+        var roomConflict = section(10002, 1, algorithms, rice130, tuesdayThursdayMorning, horton);
+        var second = section(10003, 2, sde, olsson120, tuesdayThursdayAfternoon, horton);
+
+        var results = catalogService.addAll(List.of(first, roomConflict, second), BulkAddMode.BEST_EFFORT);
+
+        assertEquals(List.of(SUCCESSFUL, FAILED_LOCATION_CONFLICT, SUCCESSFUL), results);
+        assertEquals(Set.of(first, second), catalog.getSections());
+    }
+
+    @Test
+    void addAll_allOrNothing() {
+        var first = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+        var crnConflict = section(10001, 1, algorithms, olsson120, tuesdayThursdayAfternoon, horton);
+
+        var results = catalogService.addAll(List.of(first, crnConflict), BulkAddMode.ALL_OR_NOTHING);
+
+        assertEquals(List.of(FAILED_BATCH_REJECTED, FAILED_CRN_CONFLICT), results);
+        assertTrue(catalog.getSections().isEmpty());
+    }
+
+    @Test
+    void addAll_allOrNothing_successful() {
+        var first = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+        var second = section(10002, 2, sde, olsson120, tuesdayThursdayAfternoon, horton);
+
+        var results = catalogService.addAll(List.of(first, second), BulkAddMode.ALL_OR_NOTHING);
+
+        assertEquals(List.of(SUCCESSFUL, SUCCESSFUL), results);
+        assertEquals(Set.of(first, second), catalog.getSections());
+    }
+
+    @Test
+    void addAll_conflictWithExistingSection() {
+        catalogService.add(section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney));
+        var lecturerConflict = section(10002, 1, algorithms, olsson120, tuesdayThursdayMorning, mcburney);
+
+        var results = catalogService.addAll(List.of(lecturerConflict), BulkAddMode.BEST_EFFORT);
+
+        assertEquals(List.of(FAILED_LECTURER_CONFLICT), results);
+        assertFalse(catalog.contains(lecturerConflict));
+    }
+
+    @Test
+    void addAll_duplicateInBatch() {
+        var section = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+
+        var results = catalogService.addAll(List.of(section, section), BulkAddMode.BEST_EFFORT);
+
+        assertEquals(List.of(SUCCESSFUL, FAILED_SECTION_ALREADY_EXISTS), results);
+    }
+
+    @Test
+    void closeAllSection() {
+        var sdeSection = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+        var algorithmsSection = section(10002, 1, algorithms, olsson120, tuesdayThursdayMorning, horton);
+        catalogService.addAll(List.of(sdeSection, algorithmsSection), BulkAddMode.ALL_OR_NOTHING);
+        sdeSection.setEnrollmentCapacity(0);
+        algorithmsSection.setEnrollmentCapacity(0);
+        var student = new Student(123456789, "abc2def", "John", "Doe", 1);
+        for (Section section : List.of(sdeSection, algorithmsSection)) {
+            section.addStudentToWaitList(student);
+            student.addWaitListedSection(section);
+        }
+        var progress = new AtomicInteger();
+
+        var result = catalogService.closeAllSection(closed -> progress.accumulateAndGet(closed, Math::max));
+
+        assertEquals(2, result.sectionsClosed());
+        assertEquals(2, result.waitListEntriesCleared());
+        assertEquals(1, result.studentsUpdated());
+        assertEquals(2, progress.get());
+        assertEquals(EnrollmentStatus.CLOSED, sdeSection.getEnrollmentStatus());
+        assertEquals(EnrollmentStatus.CLOSED, algorithmsSection.getEnrollmentStatus());
+        assertEquals(0, sdeSection.getWaitListSize());
+        assertTrue(student.getWaitListedSections().isEmpty());
+    }
+
+    @Test
+    void closeAllSection_manyStudents() {
+        var sections = new ArrayList<Section>();
+        for (int i = 0; i < 40; i++) {
+            sections.add(TestSections.section(20000 + i).capacity(1, 200).build());
+        }
+        catalog.addAll(sections);
+        var students = new ArrayList<Student>();
+        for (int i = 0; i < 200; i++) {
+            var student = new Student(100000000 + i, "stu" + i, "First", "Last", 1);
+            if (i < sections.size()) {
+                sections.get(i).addStudentToEnrollment(student);
+                student.addEnrolledSection(sections.get(i));
+            }
+            students.add(student);
+        }
+        for (int i = 0; i < 200; i++) {
+            for (int j = 1; j <= 5; j++) {
+                var waitListed = sections.get((i + j * 7) % sections.size());
+                waitListed.addStudentToWaitList(students.get(i));
+                students.get(i).addWaitListedSection(waitListed);
+            }
+        }
+
+        var result = catalogService.closeAllSection();
+
+        assertEquals(40, result.sectionsClosed());
+        assertEquals(1000, result.waitListEntriesCleared());
+        assertEquals(200, result.studentsUpdated());
+        for (Student student : students) {
+            assertTrue(student.getWaitListedSections().isEmpty());
+            assertEquals(student.getEnrolledSections().size() * 3, student.getEnrolledCreditHours());
+            assertEquals(student.getEnrolledCreditHours(), student.getTotalCreditHours());
+        }
+    }
+
+    @Test
+    void closeAllSection_throughRegistrationService() {
+        var registrationService = mock(RegistrationService.class);
+        when(registrationService.isThreadSafe()).thenReturn(true);
+        catalogService = new CatalogService(catalog, registrationService);
+        var sdeSection = section(10001, 1, sde, rice130, tuesdayThursdayMorning, mcburney);
+        var algorithmsSection = section(10002, 1, algorithms, olsson120, tuesdayThursdayMorning, horton);
+        catalogService.addAll(List.of(sdeSection, algorithmsSection), BulkAddMode.ALL_OR_NOTHING);
+        var student = new Student(123456789, "abc2def", "John", "Doe", 1);
+        when(registrationService.closeSection(sdeSection)).thenReturn(List.of(student));
+        when(registrationService.closeSection(algorithmsSection)).thenReturn(List.of());
+
+        var result = catalogService.closeAllSection();
+
+        verify(registrationService).closeSection(sdeSection);
+        verify(registrationService).closeSection(algorithmsSection);
+        assertEquals(2, result.sectionsClosed());
+        assertEquals(1, result.waitListEntriesCleared());
+        assertEquals(1, result.studentsUpdated());
+    }
+
+    @Test
+    void constructor_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new CatalogService(catalog, null));
+    }
+}
@@ -0,0 +1,102 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+    private Path path;
+    private Catalog catalog;
+    private Course dsa1, dsa2;
+    private Section dsa1Section, dsa2Section;
+
+    @BeforeEach
+    void setup() throws IOException {
+        path = Files.createTempFile("catalog", ".snapshot");
+        var semester = new Semester(Term.SPRING, 2024);
+        catalog = new Catalog(semester);
+        dsa1 = new Course(1, "CS", "2100", "Data Structures and Algorithms 1", 4);
+        dsa2 = new Course(2, "CS", "3100", "Data Structures and Algorithms 2", 3);
+        dsa2.getPrerequisite().add(dsa1, Grade.C_MINUS);
+        var rice130 = new Location("Rice Hall", "130", 150);
+        dsa1Section = new Section(20002, 1, dsa1, semester, rice130,
+                new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 10, 0, 10, 50),
+                new Lecturer(1, "mrf8t", "Mark", "Floryan"), 150, 20);
+        dsa2Section = new Section(20001, 1, dsa2, semester, rice130,
+                new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 14, 0, 15, 15),
+                new Lecturer(2, "nb3r", "Nate", "Brunelle"), 120, 0);
+        dsa2Section.setEnrollmentStatus(EnrollmentStatus.CLOSED);
+        catalog.add(dsa1Section);
+        catalog.add(dsa2Section);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void writeAndOpen() throws IOException {
+        CatalogSnapshot.write(catalog, path);
+        var snapshot = CatalogSnapshot.open(path);
+
+        assertEquals(catalog.getSemester(), snapshot.getSemester());
+        assertEquals(2, snapshot.size());
+        assertEquals(20001, snapshot.getSection(0).getCourseRegistrationNumber());
+        assertEquals(20002, snapshot.getSection(1).getCourseRegistrationNumber());
+    }
+
+    @Test
+    void getSectionByCRN() throws IOException {
+        CatalogSnapshot.write(catalog, path);
+        var snapshot = CatalogSnapshot.open(path);
+
+        var section = snapshot.getSectionByCRN(20001).get();
+
+        assertEquals(dsa2Section, section);
+        assertEquals(dsa2Section.getLocation(), section.getLocation());
+        assertEquals(dsa2Section.getLecturer(), section.getLecturer());
+        assertEquals(dsa2Section.getTimeSlot(), section.getTimeSlot());
+        assertEquals(120, section.getEnrollmentCapacity());
+        assertEquals(0, section.getWaitListCapacity());
+        assertEquals(EnrollmentStatus.CLOSED, section.getEnrollmentStatus());
+        assertEquals("Brunelle", section.getLecturer().getLastName());
+        assertEquals(Grade.C_MINUS, section.getCourse().getPrerequisite().getMinimumGrade(dsa1));
+        assertEquals(4, section.getCourse().getPrerequisite().getPrerequisiteCourses().iterator().next()
+                .getCreditHours());
+        assertTrue(snapshot.getSectionByCRN(12345).isEmpty());
+    }
+
+    @Test
+    void getSection_sharedObjects() throws IOException {
+        CatalogSnapshot.write(catalog, path);
+        var snapshot = CatalogSnapshot.open(path);
+
+        assertSame(snapshot.getSection(0), snapshot.getSectionByCRN(20001).get());
+        assertSame(snapshot.getSection(0).getLocation(), snapshot.getSection(1).getLocation());
+    }
+
+    @Test
+    void toCatalog() throws IOException {
+        CatalogSnapshot.write(catalog, path);
+
+        var reopened = CatalogSnapshot.open(path).toCatalog();
+
+        assertEquals(catalog.getSemester(), reopened.getSemester());
+        assertEquals(catalog.getSections(), reopened.getSections());
+        assertEquals(dsa1Section, reopened.getSectionByCRN(20002).get());
+    }
+
+    @Test
+    void open_notASnapshot() throws IOException {
+        Files.write(path, new byte[64]);
+
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshot.open(path));
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -88,4 +89,162 @@ class CatalogTest {
 
         assertTrue(catalog.contains(sectionSde));
     }
+
+    @Test
+    void getSectionByCRN() {
+        when(sectionSde.getCourseRegistrationNumber()).thenReturn(12345);
+        when(sectionAlgorithms.getCourseRegistrationNumber()).thenReturn(54321);
+        sections = new HashSet<>(Set.of(sectionSde, sectionAlgorithms));
+        catalog = new Catalog(semester, sections);
+
+        assertEquals(sectionSde, catalog.getSectionByCRN(12345).get());
+        assertEquals(sectionAlgorithms, catalog.getSectionByCRN(54321).get());
+    }
+
+    @Test
+    void getSectionByCRN_empty() {
+        when(sectionSde.getCourseRegistrationNumber()).thenReturn(12345);
+        sections = new HashSet<>(Set.of(sectionSde));
+        catalog = new Catalog(semester, sections);
+
+        assertTrue(catalog.getSectionByCRN(54321).isEmpty());
+    }
+
+    @Test
+    void getSectionByCRN_afterAdd() {
+        when(sectionSde.getSemester()).thenReturn(semester);
+        when(sectionSde.getCourseRegistrationNumber()).thenReturn(12345);
+        catalog = new Catalog(semester, new HashSet<>());
+
+        catalog.add(sectionSde);
+
+        assertEquals(sectionSde, catalog.getSectionByCRN(12345).get());
+    }
+
+    @Test
+    void getSectionByCRN_afterRemove() {
+        when(sectionSde.getCourseRegistrationNumber()).thenReturn(12345);
+        catalog = new Catalog(semester, new HashSet<>(Set.of(sectionSde)));
+
+        catalog.remove(sectionSde);
+
+        assertTrue(catalog.getSectionByCRN(12345).isEmpty());
+    }
+
+    @Test
+    void getSectionByCRN_duplicateAfterRemove() {
+        when(sectionSde.getSemester()).thenReturn(semester);
+        when(sectionAlgorithms.getSemester()).thenReturn(semester);
+        when(sectionSde.getCourseRegistrationNumber()).thenReturn(12345);
+        when(sectionAlgorithms.getCourseRegistrationNumber()).thenReturn(12345);
+        catalog = new Catalog(semester, new HashSet<>());
+        catalog.add(sectionSde);
+        catalog.add(sectionAlgorithms);
+
+        catalog.remove(sectionSde);
+        assertEquals(sectionAlgorithms, catalog.getSectionByCRN(12345).get());
+
+        catalog.remove(sectionAlgorithms);
+        assertTrue(catalog.getSectionByCRN(12345).isEmpty());
+    }
+
+    @Test
+    void getSectionByCRN_removeDuplicateKeepsFirst() {
+        when(sectionSde.getSemester()).thenReturn(semester);
+        when(sectionAlgorithms.getSemester()).thenReturn(semester);
+        when(sectionSde.getCourseRegistrationNumber()).thenReturn(12345);
+        when(sectionAlgorithms.getCourseRegistrationNumber()).thenReturn(12345);
+        catalog = new Catalog(semester, new HashSet<>());
+        catalog.add(sectionSde);
+        catalog.add(sectionAlgorithms);
+
+        catalog.remove(sectionAlgorithms);
+        catalog.remove(sectionSde);
+
+        assertTrue(catalog.getSectionByCRN(12345).isEmpty());
+    }
+
+    @Test
+    void getSectionsByLecturer() {
+        var lecturer = mock(Lecturer.class);
+        when(sectionSde.getLecturer()).thenReturn(lecturer);
+        catalog = new Catalog(semester, new HashSet<>(Set.of(sectionSde, sectionAlgorithms)));
+
+        assertEquals(Set.of(sectionSde), catalog.getSectionsByLecturer(lecturer));
+    }
+
+    @Test
+    void getSectionsByLocation() {
+        var location = new Location("Rice Hall", "130", 100);
+        when(sectionSde.getLocation()).thenReturn(location);
+        when(sectionAlgorithms.getLocation()).thenReturn(location);
+        catalog = new Catalog(semester, new HashSet<>(Set.of(sectionSde, sectionAlgorithms)));
+
+        assertEquals(Set.of(sectionSde, sectionAlgorithms), catalog.getSectionsByLocation(location));
+    }
+
+    @Test
+    void getSectionsByCourse_afterRemove() {
+        var course = mock(Course.class);
+        when(sectionSde.getCourse()).thenReturn(course);
+        catalog = new Catalog(semester, new HashSet<>(Set.of(sectionSde)));
+
+        catalog.remove(sectionSde);
+
+        assertTrue(catalog.getSectionsByCourse(course).isEmpty());
+    }
+
+    private Section realSection(int crn, int sectionNumber, String courseNumber, String room, int startHour,
+                                Lecturer lecturer) {
+        return TestSections.section(crn).sectionNumber(sectionNumber)
+                .course(new Course(crn, "CS", courseNumber, "Course " + courseNumber, 3))
+                .location(new Location("Rice Hall", room, 100))
+                .timeSlot(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, startHour, 0, startHour + 1, 15))
+                .lecturer(lecturer).build();
+    }
+
+    private static List<Integer> crns(Catalog.SearchPage page) {
+        return page.sections().stream().map(Section::getCourseRegistrationNumber).toList();
+    }
+
+    @Test
+    void search_pagination() {
+        catalog = new Catalog(semester);
+        var lecturer = new Lecturer(1, "pm8fc", "Paul", "McBurney");
+        for (int i = 0; i < 5; i++) {
+            catalog.add(realSection(10005 - i, i + 1, "3140", "10" + i, 9 + 2 * i, lecturer));
+        }
+        var query = new SectionQuery().mnemonic("CS");
+
+        var firstPage = catalog.search(query, Catalog.FIRST_PAGE, 2);
+        var secondPage = catalog.search(query, firstPage.nextCursor().getAsInt(), 2);
+        var lastPage = catalog.search(query, secondPage.nextCursor().getAsInt(), 2);
+
+        assertEquals(List.of(10001, 10002), crns(firstPage));
+        assertEquals(List.of(10003, 10004), crns(secondPage));
+        assertEquals(List.of(10005), crns(lastPage));
+        assertTrue(lastPage.nextCursor().isEmpty());
+    }
+
+    @Test
+    void search_filters() {
+        catalog = new Catalog(semester);
+        var mcburney = new Lecturer(1, "pm8fc", "Paul", "McBurney");
+        var horton = new Lecturer(2, "dh2aa", "Tom", "Horton");
+        catalog.add(realSection(10001, 1, "3140", "130", 9, mcburney));
+        catalog.add(realSection(10002, 1, "4102", "120", 14, horton));
+        catalog.add(realSection(10003, 2, "4102", "130", 14, mcburney));
+
+        assertEquals(List.of(10003), crns(catalog.search(new SectionQuery().lecturer(mcburney)
+                .courseNumberRange(4000, 4999), Catalog.FIRST_PAGE, 10)));
+        assertEquals(List.of(10002, 10003), crns(catalog.search(new SectionQuery().mnemonic("CS")
+                .timeWindow(13, 0, 17, 0), Catalog.FIRST_PAGE, 10)));
+        assertTrue(catalog.search(new SectionQuery().mnemonic("APMA"), Catalog.FIRST_PAGE, 10)
+                .sections().isEmpty());
+    }
+
+    @Test
+    void search_exception() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.search(new SectionQuery(), Catalog.FIRST_PAGE, 0));
+    }
 }
\ No newline at end of file
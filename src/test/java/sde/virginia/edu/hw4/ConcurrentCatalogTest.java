@@ -0,0 +1,142 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentCatalogTest {
+    private Semester semester;
+    private ConcurrentCatalog catalog;
+    private Course sde;
+
+    @BeforeEach
+    void setup() {
+        semester = new Semester(Term.FALL, 2023);
+        catalog = new ConcurrentCatalog(semester);
+        sde = new Course(1, "CS", "3140", "Software Development Essentials", 3);
+    }
+
+    private Section section(int crn, int sectionNumber) {
+        return TestSections.section(crn).sectionNumber(sectionNumber).course(sde)
+                .location(new Location("Rice Hall", String.valueOf(sectionNumber), 100))
+                .lecturer(new Lecturer(sectionNumber, "lec" + sectionNumber, "First", "Last")).build();
+    }
+
+    @Test
+    void getSections_snapshot() {
+        var first = section(10001, 1);
+        catalog.add(first);
+        var snapshot = catalog.getSections();
+
+        catalog.add(section(10002, 2));
+        catalog.remove(first);
+
+        assertEquals(1, snapshot.size());
+        assertTrue(snapshot.contains(first));
+        assertEquals(1, catalog.getSections().size());
+        assertFalse(catalog.getSections().contains(first));
+    }
+
+    @Test
+    void getSections_immutable() {
+        catalog.add(section(10001, 1));
+
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getSections().clear());
+    }
+
+    @Test
+    void getSectionByCRN() {
+        var section = section(10001, 1);
+        catalog.add(section);
+
+        assertEquals(section, catalog.getSectionByCRN(10001).get());
+        catalog.remove(section);
+        assertTrue(catalog.getSectionByCRN(10001).isEmpty());
+    }
+
+    @Test
+    void getSectionsByCourse_copy() {
+        catalog.add(section(10001, 1));
+        var sections = catalog.getSectionsByCourse(sde);
+
+        catalog.add(section(10002, 2));
+
+        assertEquals(1, sections.size());
+    }
+
+    @Test
+    void search_snapshot() {
+        var first = section(10001, 1);
+        catalog.add(first);
+        catalog.add(section(10002, 2));
+
+        var page = catalog.search(new SectionQuery().mnemonic("CS").lecturer(first.getLecturer()), Catalog.FIRST_PAGE,
+                10);
+
+        assertEquals(List.of(first), page.sections());
+        assertTrue(page.nextCursor().isEmpty());
+        assertEquals(Set.of(first), catalog.getSectionsByLecturer(first.getLecturer()));
+    }
+
+    @Test
+    void search_doesNotLock() throws Exception {
+        catalog.add(section(10001, 1));
+
+        synchronized (catalog) {
+            var page = CompletableFuture.supplyAsync(() -> catalog.search(new SectionQuery().mnemonic("CS"),
+                    Catalog.FIRST_PAGE, 10));
+
+            assertEquals(1, page.get(5, TimeUnit.SECONDS).sections().size());
+        }
+    }
+
+    @Test
+    void concurrentReadsDuringWrites() throws InterruptedException {
+        var done = new AtomicBoolean();
+        var failure = new AtomicReference<Throwable>();
+        var readers = new ArrayList<Thread>();
+        for (int i = 0; i < 4; i++) {
+            var reader = new Thread(() -> {
+                try {
+                    var lastSize = 0;
+                    while (!done.get()) {
+                        var sections = catalog.getSections();
+                        var size = 0;
+                        for (Section ignored : sections) {
+                            size++;
+                        }
+                        assertEquals(sections.size(), size);
+                        assertTrue(size >= lastSize);
+                        lastSize = size;
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        var catalogService = new CatalogService(catalog);
+        for (int i = 1; i <= 500; i++) {
+            assertEquals(CatalogService.AddSectionResult.SUCCESSFUL,
+                    catalogService.add(section(10000 + i, i)));
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(500, catalog.getSections().size());
+    }
+}
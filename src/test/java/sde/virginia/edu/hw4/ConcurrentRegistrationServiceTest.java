@@ -0,0 +1,270 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sde.virginia.edu.hw4.RegistrationService.RegistrationResult.*;
+
+class ConcurrentRegistrationServiceTest {
+    private static final int THREADS = 8;
+
+    private ConcurrentRegistrationService registrationService;
+    private List<Student> students;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        registrationService = new ConcurrentRegistrationService();
+        students = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            students.add(new Student(100000000 + i, "stu" + i, "First", "Last", 1));
+        }
+    }
+
+    private Section section(int crn, int hour, int enrollmentCapacity, int waitListCapacity) {
+        return TestSections.section(crn).timeSlot(new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, hour, 0, hour, 50))
+                .capacity(enrollmentCapacity, waitListCapacity).build();
+    }
+
+    private void runConcurrently(List<Runnable> tasks) throws Exception {
+        executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void register_neverOverEnrolled() throws Exception {
+        var section = section(10001, 9, 10, 5);
+        var results = new ConcurrentHashMap<Student, RegistrationService.RegistrationResult>();
+        var tasks = new ArrayList<Runnable>();
+        for (Student student : students) {
+            tasks.add(() -> results.put(student, registrationService.register(student, section)));
+        }
+
+        runConcurrently(tasks);
+
+        assertEquals(10, section.getEnrollmentSize());
+        assertEquals(5, section.getWaitListSize());
+        assertEquals(10, results.values().stream().filter(SUCCESS_ENROLLED::equals).count());
+        assertEquals(5, results.values().stream().filter(SUCCESS_WAIT_LISTED::equals).count());
+        assertEquals(185, results.values().stream().filter(FAILED_SECTION_FULL::equals).count());
+        for (Student student : students) {
+            assertEquals(section.isStudentEnrolled(student), student.isEnrolledInSection(section));
+            assertEquals(section.isStudentWaitListed(student), student.isWaitListedInSection(section));
+        }
+    }
+
+    @Test
+    void registerAndDrop_invariantsHold() throws Exception {
+        var sections = List.of(section(10001, 9, 5, 3), section(10002, 10, 5, 3), section(10003, 11, 5, 3));
+        var violation = new AtomicBoolean();
+        var tasks = new ArrayList<Runnable>();
+        for (int t = 0; t < THREADS; t++) {
+            var random = new Random(t);
+            tasks.add(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    var student = students.get(random.nextInt(40));
+                    var section = sections.get(random.nextInt(sections.size()));
+                    if (random.nextBoolean()) {
+                        registrationService.register(student, section);
+                    } else {
+                        registrationService.drop(student, section);
+                    }
+                    if (section.getEnrollmentSize() > section.getEnrollmentCapacity() ||
+                            section.getWaitListSize() > section.getWaitListCapacity()) {
+                        violation.set(true);
+                    }
+                }
+            });
+        }
+
+        runConcurrently(tasks);
+
+        assertFalse(violation.get());
+        for (Section section : sections) {
+            assertTrue(section.getEnrollmentSize() <= section.getEnrollmentCapacity());
+            assertTrue(section.getWaitListSize() <= section.getWaitListCapacity());
+            if (section.getWaitListSize() > 0) {
+                assertTrue(section.isEnrollmentFull());
+            }
+            for (Student student : students) {
+                assertEquals(section.isStudentEnrolled(student), student.isEnrolledInSection(section));
+                assertEquals(section.isStudentWaitListed(student), student.isWaitListedInSection(section));
+            }
+        }
+    }
+
+    @Test
+    void registerAll_allOrNothing() throws Exception {
+        var first = section(10001, 9, 10, 0);
+        var second = section(10002, 10, 10, 0);
+        var tasks = new ArrayList<Runnable>();
+        for (int i = 0; i < 40; i++) {
+            var student = students.get(i);
+            var cart = i % 2 == 0 ? List.of(first, second) : List.of(second, first);
+            tasks.add(() -> registrationService.registerAll(student, cart));
+        }
+
+        runConcurrently(tasks);
+
+        assertEquals(10, first.getEnrollmentSize());
+        assertEquals(first.getEnrolledStudents(), second.getEnrolledStudents());
+    }
+
+    @Test
+    void drop_promotesThroughPipeline() {
+        var pending = new ArrayList<Runnable>();
+        registrationService = new ConcurrentRegistrationService(pending::add);
+        var section = section(10001, 9, 2, 5);
+        for (int i = 0; i < 5; i++) {
+            registrationService.register(students.get(i), section);
+        }
+
+        registrationService.drop(students.get(0), section);
+        registrationService.drop(students.get(1), section);
+
+        assertEquals(0, section.getEnrollmentSize());
+        var pipeline = registrationService.getPromotionPipeline().orElseThrow();
+        assertEquals(1, pipeline.getQueueDepth());
+        pending.forEach(Runnable::run);
+        assertEquals(2, section.getEnrollmentSize());
+        assertTrue(students.get(2).isEnrolledInSection(section));
+        assertTrue(students.get(3).isEnrolledInSection(section));
+        assertEquals(1, pipeline.getBatchCount());
+        assertEquals(2, pipeline.getPromotedCount());
+    }
+
+    @Test
+    void drop_seatHeldForWaitListUntilPromotion() {
+        var pending = new ArrayList<Runnable>();
+        registrationService = new ConcurrentRegistrationService(pending::add);
+        var section = section(10001, 9, 1, 5);
+        var enrolled = students.get(0);
+        var waitListed = students.get(1);
+        var newcomer = students.get(2);
+        registrationService.register(enrolled, section);
+        registrationService.register(waitListed, section);
+
+        registrationService.drop(enrolled, section);
+        assertEquals(SUCCESS_WAIT_LISTED, registrationService.register(newcomer, section));
+        pending.forEach(Runnable::run);
+
+        assertTrue(waitListed.isEnrolledInSection(section));
+        assertTrue(section.isStudentEnrolled(waitListed));
+        assertTrue(section.isStudentWaitListed(newcomer));
+        assertEquals(1, section.getEnrollmentSize());
+        assertTrue(section.isEnrollmentFull());
+    }
+
+    @Test
+    void closeSection_releasesHeldSeat() {
+        var pending = new ArrayList<Runnable>();
+        registrationService = new ConcurrentRegistrationService(pending::add);
+        var section = section(10001, 9, 1, 5);
+        var enrolled = students.get(0);
+        var waitListed = students.get(1);
+        registrationService.register(enrolled, section);
+        registrationService.register(waitListed, section);
+        registrationService.drop(enrolled, section);
+
+        assertEquals(List.of(waitListed), registrationService.closeSection(section));
+        pending.forEach(Runnable::run);
+
+        assertFalse(waitListed.isWaitListedInSection(section));
+        assertFalse(section.isStudentEnrolled(waitListed));
+        assertEquals(0, section.getEnrollmentSize());
+        assertFalse(section.isEnrollmentFull());
+    }
+
+    @Test
+    void drop_promotionRejected_releasesHeldSeat() {
+        registrationService = new ConcurrentRegistrationService(command -> {
+            throw new RejectedExecutionException();
+        });
+        var section = section(10001, 9, 1, 5);
+        var waitListed = students.get(1);
+        registrationService.register(students.get(0), section);
+        registrationService.register(waitListed, section);
+
+        assertTrue(registrationService.drop(students.get(0), section));
+
+        assertFalse(section.isEnrollmentFull());
+        assertEquals(List.of(waitListed), registrationService.promoteFromWaitList(section));
+        assertTrue(waitListed.isEnrolledInSection(section));
+    }
+
+    @Test
+    void drop_seatNotHeldWithoutWaitList() {
+        var pending = new ArrayList<Runnable>();
+        registrationService = new ConcurrentRegistrationService(pending::add);
+        var section = section(10001, 9, 1, 5);
+        registrationService.register(students.get(0), section);
+
+        registrationService.drop(students.get(0), section);
+
+        assertEquals(SUCCESS_ENROLLED, registrationService.register(students.get(1), section));
+    }
+
+    @Test
+    void swap_promotesInlineInPipelineMode() {
+        var pending = new ArrayList<Runnable>();
+        registrationService = new ConcurrentRegistrationService(pending::add);
+        var oldSection = section(10001, 9, 1, 5);
+        var newSection = section(10002, 10, 1, 5);
+        var swapping = students.get(0);
+        var waitListed = students.get(1);
+        registrationService.register(swapping, oldSection);
+        registrationService.register(waitListed, oldSection);
+
+        assertEquals(SUCCESS_ENROLLED, registrationService.swap(swapping, oldSection, newSection));
+
+        assertTrue(pending.isEmpty());
+        assertTrue(oldSection.isStudentEnrolled(waitListed));
+        assertTrue(waitListed.isEnrolledInSection(oldSection));
+        assertEquals(SUCCESS_WAIT_LISTED, registrationService.register(students.get(2), oldSection));
+    }
+
+    @Test
+    void swap_opposingDirections() throws Exception {
+        var first = section(10001, 9, 40, 0);
+        var second = section(10002, 10, 40, 0);
+        for (int i = 0; i < 40; i++) {
+            registrationService.register(students.get(i), i % 2 == 0 ? first : second);
+        }
+        var tasks = new ArrayList<Runnable>();
+        for (int i = 0; i < 40; i++) {
+            var student = students.get(i);
+            tasks.add(() -> registrationService.swap(student, first, second));
+            tasks.add(() -> registrationService.swap(student, second, first));
+        }
+
+        runConcurrently(tasks);
+
+        assertEquals(40, first.getEnrollmentSize() + second.getEnrollmentSize());
+        for (int i = 0; i < 40; i++) {
+            var student = students.get(i);
+            assertNotEquals(first.isStudentEnrolled(student), second.isStudentEnrolled(student));
+            assertEquals(first.isStudentEnrolled(student), student.isEnrolledInSection(first));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EligibilityProfileTest {
+    private Student student;
+    private Course sde, algorithms;
+    private Section sdeSection, algorithmsSection;
+
+    @BeforeEach
+    void setup() {
+        student = new Student(123456789, "abc2def", "John", "Doe", 2);
+        sde = new Course(1, "CS", "3140", "Software Development Essentials", 3);
+        algorithms = new Course(2, "CS", "4102", "Algorithms", 4);
+        sdeSection = section(10001, 1, sde);
+        algorithmsSection = section(10002, 1, algorithms);
+    }
+
+    private Section section(int crn, int sectionNumber, Course course) {
+        return TestSections.section(crn).sectionNumber(sectionNumber).course(course).capacity(10, 10).build();
+    }
+
+    @Test
+    void of() {
+        student.addEnrolledSection(sdeSection);
+        student.addWaitListedSection(algorithmsSection);
+        student.addGrade(section(9001, 1, sde), Grade.D);
+        student.addGrade(section(9002, 2, sde), Grade.B_PLUS);
+
+        var profile = EligibilityProfile.of(student);
+
+        assertFalse(profile.isOnProbation());
+        assertEquals(Schedule.DEFAULT_CREDIT_LIMIT, profile.getCreditLimit());
+        assertEquals(3, profile.getEnrolledCreditHours());
+        assertEquals(7, profile.getRegisteredCreditHours());
+        assertEquals(Optional.of(Grade.B_PLUS), profile.getBestGrade(sde));
+        assertEquals(Optional.empty(), profile.getBestGrade(algorithms));
+    }
+
+    @Test
+    void of_probation() {
+        student.addGrade(section(9001, 1, sde), Grade.F);
+
+        var profile = EligibilityProfile.of(student);
+
+        assertTrue(profile.isOnProbation());
+        assertEquals(Schedule.PROBATION_CREDIT_LIMIT, profile.getCreditLimit());
+    }
+
+    @Test
+    void of_checksProbationOnce() {
+        var spiedStudent = spy(student);
+        spiedStudent.addGrade(section(9001, 1, sde), Grade.F);
+
+        EligibilityProfile.of(spiedStudent);
+
+        verify(spiedStudent, times(1)).isOnProbation();
+        verify(spiedStudent, never()).getCreditLimit();
+    }
+
+    @Test
+    void refresh_unchanged() {
+        var profile = student.getEligibilityProfile();
+
+        assertSame(profile, student.getEligibilityProfile());
+        assertTrue(profile.isCurrentFor(student));
+    }
+
+    @Test
+    void refresh_scheduleChanged() {
+        var profile = student.getEligibilityProfile();
+
+        student.addEnrolledSection(sdeSection);
+
+        assertFalse(profile.isCurrentFor(student));
+        assertEquals(3, student.getEligibilityProfile().getRegisteredCreditHours());
+    }
+
+    @Test
+    void refresh_transcriptChanged() {
+        var profile = student.getEligibilityProfile();
+
+        student.addGrade(section(9001, 1, sde), Grade.A);
+
+        assertFalse(profile.isCurrentFor(student));
+        assertEquals(Optional.of(Grade.A), student.getEligibilityProfile().getBestGrade(sde));
+    }
+}
@@ -0,0 +1,163 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyCacheTest {
+    @Mock
+    private Clock clock;
+
+    private IdempotencyCache<Integer> cache;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setup() {
+        cache = new IdempotencyCache<>(3, Duration.ofSeconds(10), clock);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    void execute_retry() {
+        when(clock.millis()).thenReturn(0L);
+
+        assertEquals(1, cache.execute("a", calls::incrementAndGet));
+        assertEquals(1, cache.execute("a", calls::incrementAndGet));
+        assertEquals(2, cache.execute("b", calls::incrementAndGet));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_expired() {
+        when(clock.millis()).thenReturn(0L, 9_999L, 10_000L);
+
+        cache.execute("a", calls::incrementAndGet);
+        cache.execute("a", calls::incrementAndGet);
+        assertEquals(2, cache.execute("a", calls::incrementAndGet));
+    }
+
+    @Test
+    void execute_bounded() {
+        when(clock.millis()).thenReturn(0L);
+
+        for (String id : new String[]{"a", "b", "c", "d"}) {
+            cache.execute(id, calls::incrementAndGet);
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(5, cache.execute("a", calls::incrementAndGet));
+        assertEquals(4, cache.execute("d", calls::incrementAndGet));
+    }
+
+    @Test
+    void execute_exceptionNotRemembered() {
+        when(clock.millis()).thenReturn(0L);
+
+        assertThrows(IllegalStateException.class, () -> cache.execute("a", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(1, cache.execute("a", calls::incrementAndGet));
+    }
+
+    @Test
+    void execute_errorNotRemembered() {
+        when(clock.millis()).thenReturn(0L);
+
+        assertThrows(AssertionError.class, () -> cache.execute("a", () -> {
+            throw new AssertionError();
+        }));
+        assertEquals(1, cache.execute("a", calls::incrementAndGet));
+    }
+
+    @Test
+    void execute_concurrentRetryGetsError() throws Exception {
+        when(clock.millis()).thenReturn(0L);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var original = executor.submit(() -> cache.execute("a", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                throw new AssertionError();
+            }));
+            started.await();
+            var retry = executor.submit(() -> cache.execute("a", calls::incrementAndGet));
+            release.countDown();
+
+            var originalFailure = assertThrows(ExecutionException.class, () -> original.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, originalFailure.getCause());
+            try {
+                assertEquals(1, retry.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                // the retry arrived before the original failed, so it shares the original's error
+                assertInstanceOf(AssertionError.class, e.getCause());
+            }
+            assertEquals(1, cache.execute("a", () -> 1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void execute_concurrentRetryWaits() throws Exception {
+        when(clock.millis()).thenReturn(0L);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var original = executor.submit(() -> cache.execute("a", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return calls.incrementAndGet();
+            }));
+            started.await();
+            var retry = executor.submit(() -> cache.execute("a", calls::incrementAndGet));
+            release.countDown();
+
+            assertEquals(1, original.get());
+            assertEquals(1, retry.get());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void forget() {
+        when(clock.millis()).thenReturn(0L);
+        cache.execute("a", calls::incrementAndGet);
+
+        cache.forget("a");
+
+        assertEquals(2, cache.execute("a", calls::incrementAndGet));
+    }
+
+    @Test
+    void constructor_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyCache<>(0, Duration.ofSeconds(1), clock));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyCache<>(1, Duration.ZERO, clock));
+    }
+}
@@ -0,0 +1,31 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternerTest {
+    @Test
+    void intern_first() {
+        var interner = new Interner<String>();
+        var value = new String("Rice");
+        assertSame(value, interner.intern(value));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    void intern_equal() {
+        var interner = new Interner<String>();
+        var first = new String("Rice");
+        var second = new String("Rice");
+        interner.intern(first);
+        assertSame(first, interner.intern(second));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    void intern_null() {
+        var interner = new Interner<String>();
+        assertThrows(IllegalArgumentException.class, () -> interner.intern(null));
+    }
+}
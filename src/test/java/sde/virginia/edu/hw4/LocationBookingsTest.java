@@ -0,0 +1,144 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationBookingsTest {
+    @Mock
+    private Section morningSection, afternoonSection;
+
+    private LocationBookings bookings;
+
+    @BeforeEach
+    void setup() {
+        bookings = new LocationBookings();
+        lenient().when(morningSection.getTimeSlot()).thenReturn(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45));
+        lenient().when(afternoonSection.getTimeSlot())
+                .thenReturn(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 14, 0, 15, 15));
+    }
+
+    @Test
+    void overlapsWith_empty() {
+        assertFalse(new LocationBookings().overlapsWith(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 0, 10, 0)));
+    }
+
+    @Test
+    void overlapsWith_startsDuringBooking() {
+        bookings.add(morningSection);
+
+        assertTrue(bookings.overlapsWith(new TimeSlot(Set.of(DayOfWeek.THURSDAY), 10, 44, 11, 0)));
+    }
+
+    @Test
+    void overlapsWith_endsDuringBooking() {
+        bookings.add(morningSection);
+
+        assertTrue(bookings.overlapsWith(new TimeSlot(Set.of(DayOfWeek.TUESDAY), 9, 0, 9, 31)));
+    }
+
+    @Test
+    void overlapsWith_containsBooking() {
+        bookings.add(morningSection);
+
+        assertTrue(bookings.overlapsWith(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 8, 0, 12, 0)));
+    }
+
+    @Test
+    void overlapsWith_backToBack() {
+        bookings.add(morningSection);
+
+        assertFalse(bookings.overlapsWith(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 45, 12, 0)));
+        assertFalse(bookings.overlapsWith(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 8, 0, 9, 30)));
+    }
+
+    @Test
+    void overlapsWith_overlappingBookings() {
+        var longSection = mock(Section.class);
+        var shortSection = mock(Section.class);
+        when(longSection.getTimeSlot()).thenReturn(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 0, 12, 0));
+        when(shortSection.getTimeSlot()).thenReturn(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 0, 10, 30));
+        bookings.add(longSection);
+        bookings.add(shortSection);
+
+        assertTrue(bookings.overlapsWith(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 11, 0, 11, 30)));
+
+        bookings.remove(longSection);
+        assertFalse(bookings.overlapsWith(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 11, 0, 11, 30)));
+    }
+
+    @Test
+    void overlapsWith_matchesEveryBookingAfterChanges() {
+        var random = new Random(42);
+        var booked = new ArrayList<Section>();
+        for (int step = 0; step < 300; step++) {
+            if (!booked.isEmpty() && random.nextInt(3) == 0) {
+                bookings.remove(booked.remove(random.nextInt(booked.size())));
+            } else {
+                var section = mock(Section.class);
+                when(section.getTimeSlot()).thenReturn(randomTimeSlot(random));
+                bookings.add(section);
+                booked.add(section);
+            }
+            var query = randomTimeSlot(random);
+
+            var expected = booked.stream().anyMatch(section -> section.getTimeSlot().overlapsWith(query));
+            assertEquals(expected, bookings.overlapsWith(query), "step " + step + ": " + query);
+        }
+    }
+
+    private static TimeSlot randomTimeSlot(Random random) {
+        var start = 8 * 60 + random.nextInt(10 * 60);
+        var end = start + random.nextInt(4 * 60);
+        return new TimeSlot(Set.of(DayOfWeek.MONDAY), start / 60, start % 60, end / 60, end % 60);
+    }
+
+    @Test
+    void overlapsWith_differentDays() {
+        bookings.add(morningSection);
+
+        assertFalse(bookings.overlapsWith(new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 9, 30, 10, 45)));
+    }
+
+    @Test
+    void remove() {
+        bookings.add(morningSection);
+
+        bookings.remove(morningSection);
+
+        assertTrue(bookings.isEmpty());
+        assertFalse(bookings.overlapsWith(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45)));
+    }
+
+    @Test
+    void getFreeWindows() {
+        bookings.add(morningSection);
+        bookings.add(afternoonSection);
+
+        assertEquals(List.of(
+                new TimeSlot(Set.of(DayOfWeek.TUESDAY), 0, 0, 9, 30),
+                new TimeSlot(Set.of(DayOfWeek.TUESDAY), 10, 45, 14, 0),
+                new TimeSlot(Set.of(DayOfWeek.TUESDAY), 15, 15, 24, 0)
+        ), bookings.getFreeWindows(DayOfWeek.TUESDAY));
+    }
+
+    @Test
+    void getFreeWindows_noBookings() {
+        bookings.add(morningSection);
+
+        assertEquals(List.of(new TimeSlot(Set.of(DayOfWeek.MONDAY), 0, 0, 24, 0)),
+                bookings.getFreeWindows(DayOfWeek.MONDAY));
+    }
+}
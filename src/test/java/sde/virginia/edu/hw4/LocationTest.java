@@ -31,4 +31,24 @@ class LocationTest {
         assertThrows(IllegalArgumentException.class, () ->
                 new Location("Rice", "404", -1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void of_sharesEqualLocations() {
+        var first = Location.of("Nau Hall", "101", 245);
+        var second = Location.of("Nau Hall", "101", 245);
+        assertSame(first, second);
+        assertEquals(location, first);
+        assertEquals(location.hashCode(), first.hashCode());
+    }
+
+    @Test
+    void of_distinctLocations() {
+        assertNotEquals(Location.of("Nau Hall", "101", 245), Location.of("Nau Hall", "101A", 245));
+        assertNotEquals(Location.of("Nau Hall", "101", 245), Location.of("Nau Hall", "101", 100));
+    }
+
+    @Test
+    void of_badInputs() {
+        assertThrows(IllegalArgumentException.class, () -> Location.of(null, "404", 10));
+    }
+}
@@ -113,4 +113,28 @@ class PrerequisiteTest {
 
         assertFalse(prerequisite.isSatisfiedBy(student));
     }
-}
\ No newline at end of file
+
+    @Test
+    void isSatisfiedBy_profile() {
+        var profile = mock(EligibilityProfile.class);
+        when(profile.getBestGrade(dsa1)).thenReturn(Optional.of(Grade.A));
+        when(profile.getBestGrade(dmt1)).thenReturn(Optional.of(Grade.C_MINUS));
+
+        requiredCourses = Map.of(dsa1, Grade.C_MINUS, dmt1, Grade.C_MINUS);
+        prerequisite = new Prerequisite(requiredCourses);
+
+        assertTrue(prerequisite.isSatisfiedBy(profile));
+    }
+
+    @Test
+    void isSatisfiedBy_profile_notTaken() {
+        var profile = mock(EligibilityProfile.class);
+        lenient().when(profile.getBestGrade(dsa1)).thenReturn(Optional.empty());
+        lenient().when(profile.getBestGrade(dmt1)).thenReturn(Optional.empty());
+
+        requiredCourses = Map.of(dsa1, Grade.C_MINUS, dmt1, Grade.C_MINUS);
+        prerequisite = new Prerequisite(requiredCourses);
+
+        assertFalse(prerequisite.isSatisfiedBy(profile));
+    }
+}
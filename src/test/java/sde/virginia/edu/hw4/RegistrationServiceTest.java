@@ -0,0 +1,341 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sde.virginia.edu.hw4.RegistrationService.RegistrationResult.*;
+
+class RegistrationServiceTest {
+    private RegistrationService registrationService;
+    private Student student, otherStudent;
+    private Course sde, algorithms;
+    private Section sdeSection, algorithmsSection;
+    private Lecturer lecturer;
+
+    @BeforeEach
+    void setup() {
+        registrationService = new RegistrationService();
+        student = new Student(123456789, "abc2def", "John", "Doe", 2);
+        otherStudent = new Student(987654321, "zyx9wv", "Jane", "Doe", 2);
+        sde = new Course(1, "CS", "3140", "Software Development Essentials", 3);
+        algorithms = new Course(2, "CS", "4102", "Algorithms", 3);
+        lecturer = new Lecturer(1, "pm8fc", "Paul", "McBurney");
+        sdeSection = section(10001, 1, sde, new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45));
+        algorithmsSection = section(10002, 1, algorithms, new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 14, 0, 15, 15));
+    }
+
+    private Section section(int crn, int sectionNumber, Course course, TimeSlot timeSlot) {
+        return TestSections.section(crn).sectionNumber(sectionNumber).course(course).timeSlot(timeSlot)
+                .lecturer(lecturer).capacity(1, 1).build();
+    }
+
+    @Test
+    void register_enrolled() {
+        assertEquals(SUCCESS_ENROLLED, registrationService.register(student, sdeSection));
+
+        assertTrue(sdeSection.isStudentEnrolled(student));
+        assertTrue(student.isEnrolledInSection(sdeSection));
+    }
+
+    @Test
+    void register_waitListed() {
+        registrationService.register(otherStudent, sdeSection);
+
+        assertEquals(SUCCESS_WAIT_LISTED, registrationService.register(student, sdeSection));
+
+        assertTrue(sdeSection.isStudentWaitListed(student));
+        assertTrue(student.isWaitListedInSection(sdeSection));
+    }
+
+    @Test
+    void register_alreadyInCourse() {
+        registrationService.register(student, sdeSection);
+        var otherSdeSection = section(10003, 2, sde, new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 9, 0, 9, 50));
+
+        assertEquals(FAILED_ALREADY_IN_COURSE, registrationService.register(student, otherSdeSection));
+    }
+
+    @Test
+    void register_alreadyWaitListedInCourse() {
+        registrationService.register(otherStudent, sdeSection);
+        registrationService.register(student, sdeSection);
+
+        assertEquals(FAILED_ALREADY_IN_COURSE, registrationService.register(student, sdeSection));
+    }
+
+    @Test
+    void register_closed() {
+        sdeSection.setEnrollmentStatus(EnrollmentStatus.CLOSED);
+
+        assertEquals(FAILED_ENROLLMENT_CLOSED, registrationService.register(student, sdeSection));
+        assertFalse(student.isEnrolledInSection(sdeSection));
+    }
+
+    @Test
+    void register_full() {
+        sdeSection.setWaitListCapacity(0);
+        registrationService.register(otherStudent, sdeSection);
+
+        assertEquals(FAILED_SECTION_FULL, registrationService.register(student, sdeSection));
+    }
+
+    @Test
+    void register_scheduleConflict() {
+        registrationService.register(student, sdeSection);
+        var conflicting = section(10003, 1, algorithms, new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 0, 11, 15));
+
+        assertEquals(FAILED_SCHEDULE_CONFLICT, registrationService.register(student, conflicting));
+        assertFalse(conflicting.isStudentEnrolled(student));
+    }
+
+    @Test
+    void register_prerequisiteNotMet() {
+        algorithms.getPrerequisite().add(sde, Grade.C_MINUS);
+
+        assertEquals(FAILED_PREREQUISITE_NOT_MET, registrationService.register(student, algorithmsSection));
+    }
+
+    @Test
+    void register_prerequisiteMet() {
+        algorithms.getPrerequisite().add(sde, Grade.C_MINUS);
+        student.addGrade(section(9999, 9, sde, sdeSection.getTimeSlot()), Grade.B);
+
+        assertEquals(SUCCESS_ENROLLED, registrationService.register(student, algorithmsSection));
+    }
+
+    @Test
+    void register_creditLimit() {
+        var bigCourse = new Course(3, "CS", "4993", "Independent Study", Schedule.DEFAULT_CREDIT_LIMIT - 2);
+        registrationService.register(student, section(10003, 1, bigCourse,
+                new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 9, 0, 9, 50)));
+
+        assertEquals(FAILED_CREDIT_LIMIT_VIOLATION, registrationService.register(student, sdeSection));
+    }
+
+    @Test
+    void drop_enrolled() {
+        registrationService.register(student, sdeSection);
+
+        assertTrue(registrationService.drop(student, sdeSection));
+
+        assertFalse(sdeSection.isStudentEnrolled(student));
+        assertFalse(student.isEnrolledInSection(sdeSection));
+        assertEquals(Grade.DROP, student.getGrade(sdeSection));
+    }
+
+    @Test
+    void drop_promotesFromWaitList() {
+        registrationService.register(student, sdeSection);
+        registrationService.register(otherStudent, sdeSection);
+
+        registrationService.drop(student, sdeSection);
+
+        assertTrue(sdeSection.isStudentEnrolled(otherStudent));
+        assertFalse(sdeSection.isStudentWaitListed(otherStudent));
+        assertTrue(otherStudent.isEnrolledInSection(sdeSection));
+        assertFalse(otherStudent.isWaitListedInSection(sdeSection));
+    }
+
+    @Test
+    void drop_closedDoesNotPromote() {
+        registrationService.register(student, sdeSection);
+        registrationService.register(otherStudent, sdeSection);
+        sdeSection.setEnrollmentStatus(EnrollmentStatus.CLOSED);
+
+        registrationService.drop(student, sdeSection);
+
+        assertEquals(0, sdeSection.getEnrollmentSize());
+        assertTrue(sdeSection.isStudentWaitListed(otherStudent));
+    }
+
+    @Test
+    void drop_waitListed() {
+        registrationService.register(otherStudent, sdeSection);
+        registrationService.register(student, sdeSection);
+
+        assertTrue(registrationService.drop(student, sdeSection));
+
+        assertFalse(sdeSection.isStudentWaitListed(student));
+        assertFalse(student.isWaitListedInSection(sdeSection));
+        assertEquals(Grade.DROP, student.getGrade(sdeSection));
+    }
+
+    @Test
+    void drop_notRegistered() {
+        assertFalse(registrationService.drop(student, sdeSection));
+    }
+
+    @Test
+    void registerAll() {
+        registrationService.register(otherStudent, algorithmsSection);
+
+        assertEquals(List.of(SUCCESS_ENROLLED, SUCCESS_WAIT_LISTED),
+                registrationService.registerAll(student, List.of(sdeSection, algorithmsSection)));
+
+        assertTrue(student.isEnrolledInSection(sdeSection));
+        assertTrue(student.isWaitListedInSection(algorithmsSection));
+    }
+
+    @Test
+    void registerAll_conflictWithinCart() {
+        var conflicting = section(10003, 1, algorithms, new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 0, 11, 15));
+
+        assertEquals(List.of(FAILED_CART_REJECTED, FAILED_SCHEDULE_CONFLICT),
+                registrationService.registerAll(student, List.of(sdeSection, conflicting)));
+
+        assertFalse(sdeSection.isStudentEnrolled(student));
+        assertTrue(student.getEnrolledSections().isEmpty());
+    }
+
+    @Test
+    void registerAll_sameCourseWithinCart() {
+        var otherSdeSection = section(10003, 2, sde, new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 9, 0, 9, 50));
+
+        assertEquals(List.of(FAILED_CART_REJECTED, FAILED_ALREADY_IN_COURSE),
+                registrationService.registerAll(student, List.of(sdeSection, otherSdeSection)));
+    }
+
+    @Test
+    void registerAll_cumulativeCreditLimit() {
+        var bigCourse = new Course(3, "CS", "4993", "Independent Study", Schedule.DEFAULT_CREDIT_LIMIT - 5);
+        var bigSection = section(10003, 1, bigCourse, new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 9, 0, 9, 50));
+
+        assertEquals(List.of(FAILED_CART_REJECTED, FAILED_CART_REJECTED, FAILED_CREDIT_LIMIT_VIOLATION),
+                registrationService.registerAll(student, List.of(bigSection, sdeSection, algorithmsSection)));
+
+        assertEquals(0, bigSection.getEnrollmentSize());
+    }
+
+    @Test
+    void registerAll_conflictWithSchedule() {
+        registrationService.register(student, sdeSection);
+        var conflicting = section(10003, 1, algorithms, new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 0, 11, 15));
+
+        assertEquals(List.of(FAILED_SCHEDULE_CONFLICT),
+                registrationService.registerAll(student, List.of(conflicting)));
+    }
+
+    @Test
+    void promoteFromWaitList_skipsIneligible() {
+        var thirdStudent = new Student(111111111, "ccc3cc", "Jim", "Doe", 2);
+        sdeSection.setWaitListCapacity(2);
+        registrationService.register(student, sdeSection);
+        registrationService.register(otherStudent, sdeSection);
+        registrationService.register(thirdStudent, sdeSection);
+        var conflicting = section(10003, 1, algorithms, new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 0, 11, 15));
+        otherStudent.addEnrolledSection(conflicting);
+
+        registrationService.drop(student, sdeSection);
+
+        assertTrue(sdeSection.isStudentWaitListed(otherStudent));
+        assertTrue(sdeSection.isStudentEnrolled(thirdStudent));
+        assertTrue(thirdStudent.isEnrolledInSection(sdeSection));
+    }
+
+    @Test
+    void promoteFromWaitList_fillsFreeSeats() {
+        registrationService.register(student, sdeSection);
+        registrationService.register(otherStudent, sdeSection);
+        sdeSection.setEnrollmentCapacity(2);
+
+        assertEquals(List.of(otherStudent), registrationService.promoteFromWaitList(sdeSection));
+        assertEquals(List.of(), registrationService.promoteFromWaitList(sdeSection));
+    }
+
+    @Test
+    void closeSection() {
+        registrationService.register(student, sdeSection);
+        registrationService.register(otherStudent, sdeSection);
+
+        assertEquals(List.of(otherStudent), registrationService.closeSection(sdeSection));
+
+        assertEquals(EnrollmentStatus.CLOSED, sdeSection.getEnrollmentStatus());
+        assertEquals(0, sdeSection.getWaitListSize());
+        assertFalse(otherStudent.isWaitListedInSection(sdeSection));
+        assertTrue(student.isEnrolledInSection(sdeSection));
+    }
+
+    @Test
+    void register_requestIdRetry() {
+        assertEquals(SUCCESS_ENROLLED, registrationService.register("request-1", student, sdeSection));
+        assertEquals(SUCCESS_ENROLLED, registrationService.register("request-1", student, sdeSection));
+        assertEquals(FAILED_ALREADY_IN_COURSE, registrationService.register("request-2", student, sdeSection));
+    }
+
+    @Test
+    void drop_requestIdRetry() {
+        registrationService.register(student, sdeSection);
+        registrationService.register(otherStudent, sdeSection);
+
+        assertTrue(registrationService.drop("request-1", student, sdeSection));
+        assertTrue(registrationService.drop("request-1", student, sdeSection));
+
+        assertTrue(sdeSection.isStudentEnrolled(otherStudent));
+        assertFalse(registrationService.drop("request-2", student, sdeSection));
+    }
+
+    @Test
+    void swap_sameCourse() {
+        var otherSdeSection = section(10003, 2, sde, new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 0, 11, 15));
+        registrationService.register(student, sdeSection);
+        registrationService.register(otherStudent, sdeSection);
+
+        assertEquals(SUCCESS_ENROLLED, registrationService.swap(student, sdeSection, otherSdeSection));
+
+        assertTrue(student.isEnrolledInSection(otherSdeSection));
+        assertFalse(student.isEnrolledInSection(sdeSection));
+        assertThrows(IllegalArgumentException.class, () -> student.getGrade(sdeSection));
+        assertTrue(sdeSection.isStudentEnrolled(otherStudent));
+    }
+
+    @Test
+    void swap_newSectionFull() {
+        var otherSdeSection = section(10003, 2, sde, new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 9, 0, 9, 50));
+        registrationService.register(otherStudent, otherSdeSection);
+        registrationService.register(student, sdeSection);
+
+        assertEquals(FAILED_SECTION_FULL, registrationService.swap(student, sdeSection, otherSdeSection));
+
+        assertTrue(student.isEnrolledInSection(sdeSection));
+        assertTrue(sdeSection.isStudentEnrolled(student));
+        assertFalse(otherSdeSection.isStudentWaitListed(student));
+    }
+
+    @Test
+    void swap_waitListedMayWaitList() {
+        var otherSdeSection = section(10003, 2, sde, new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 9, 0, 9, 50));
+        var thirdStudent = new Student(111111111, "ccc3cc", "Jim", "Doe", 2);
+        registrationService.register(thirdStudent, otherSdeSection);
+        registrationService.register(otherStudent, sdeSection);
+        registrationService.register(student, sdeSection);
+
+        assertEquals(SUCCESS_WAIT_LISTED, registrationService.swap(student, sdeSection, otherSdeSection));
+
+        assertFalse(sdeSection.isStudentWaitListed(student));
+        assertTrue(otherSdeSection.isStudentWaitListed(student));
+        assertTrue(student.isWaitListedInSection(otherSdeSection));
+    }
+
+    @Test
+    void swap_conflictOnlyWithOldSectionIgnored() {
+        var overlapping = section(10003, 1, algorithms, new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 0, 11, 15));
+        registrationService.register(student, sdeSection);
+
+        assertEquals(SUCCESS_ENROLLED, registrationService.swap(student, sdeSection, overlapping));
+    }
+
+    @Test
+    void swap_notRegistered() {
+        assertEquals(FAILED_NOT_REGISTERED, registrationService.swap(student, sdeSection, algorithmsSection));
+    }
+
+    @Test
+    void swap_sameSection() {
+        registrationService.register(student, sdeSection);
+
+        assertEquals(FAILED_ALREADY_IN_COURSE, registrationService.swap(student, sdeSection, sdeSection));
+    }
+}
@@ -177,4 +177,173 @@ class ScheduleTest {
 
         assertFalse(schedule.isWaitListedInSection(sdeSection));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getConflictingSection_enrolled() {
+        var morning = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        var overlapping = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 0, 11, 15);
+        when(sdeSection.getTimeSlot()).thenReturn(morning);
+        when(sdeSection.overlapsWith(overlapping)).thenReturn(true);
+        schedule = new Schedule(new HashSet<>(Set.of(sdeSection)), new HashSet<>());
+
+        assertEquals(sdeSection, schedule.getConflictingSection(overlapping).orElseThrow());
+    }
+
+    @Test
+    void getConflictingSection_waitListed() {
+        var morning = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        var overlapping = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 0, 11, 15);
+        when(sdeSection.getTimeSlot()).thenReturn(morning);
+        when(sdeSection.overlapsWith(overlapping)).thenReturn(true);
+        schedule = new Schedule(new HashSet<>(), new HashSet<>(Set.of(sdeSection)));
+
+        assertEquals(sdeSection, schedule.getConflictingSection(overlapping).orElseThrow());
+        assertTrue(schedule.getConflictingEnrolledSection(overlapping).isEmpty());
+    }
+
+    @Test
+    void getConflictingSection_noConflict() {
+        var morning = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        var afternoon = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 14, 0, 15, 15);
+        when(sdeSection.getTimeSlot()).thenReturn(morning);
+        schedule = new Schedule(new HashSet<>(Set.of(sdeSection)), new HashSet<>());
+
+        assertTrue(schedule.getConflictingSection(afternoon).isEmpty());
+        verify(sdeSection, never()).overlapsWith(any());
+    }
+
+    @Test
+    void getConflictingSection_excluded() {
+        var morning = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        when(sdeSection.getTimeSlot()).thenReturn(morning);
+        schedule = new Schedule(new HashSet<>(Set.of(sdeSection)), new HashSet<>());
+
+        assertTrue(schedule.getConflictingSection(morning, sdeSection).isEmpty());
+    }
+
+    @Test
+    void getConflictingSection_updatedOnAddAndRemove() {
+        var morning = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        var afternoon = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 14, 0, 15, 15);
+        when(sdeSection.getTimeSlot()).thenReturn(morning);
+        when(algorithmsSection.getTimeSlot()).thenReturn(afternoon);
+        when(algorithmsSection.overlapsWith(afternoon)).thenReturn(true);
+        schedule = new Schedule(new HashSet<>(Set.of(sdeSection)), new HashSet<>());
+        assertTrue(schedule.getConflictingSection(afternoon).isEmpty());
+
+        schedule.addEnrolledSection(algorithmsSection);
+        assertEquals(algorithmsSection, schedule.getConflictingSection(afternoon).orElseThrow());
+
+        schedule.removeEnrolledSection(algorithmsSection);
+        assertTrue(schedule.getConflictingSection(afternoon).isEmpty());
+    }
+
+    @Test
+    void getConflictingSection_removeKeepsSharedSlots() {
+        var morning = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        var lateMorning = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 0, 11, 15);
+        when(sdeSection.getTimeSlot()).thenReturn(morning);
+        when(sdeSection.overlapsWith(morning)).thenReturn(true);
+        when(algorithmsSection.getTimeSlot()).thenReturn(lateMorning);
+        schedule = new Schedule(new HashSet<>(Set.of(sdeSection, algorithmsSection)), new HashSet<>());
+        schedule.getConflictingSection(morning);
+
+        schedule.removeEnrolledSection(algorithmsSection);
+
+        assertEquals(sdeSection, schedule.getConflictingSection(morning).orElseThrow());
+    }
+
+    @Test
+    void getConflictingSection_removeKeepsOtherSlots() {
+        var morning = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        var afternoon = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 14, 0, 15, 15);
+        when(sdeSection.getTimeSlot()).thenReturn(morning);
+        when(algorithmsSection.getTimeSlot()).thenReturn(afternoon);
+        when(algorithmsSection.overlapsWith(afternoon)).thenReturn(true);
+        schedule = new Schedule(new HashSet<>(Set.of(sdeSection, algorithmsSection)), new HashSet<>());
+        schedule.getConflictingSection(afternoon);
+
+        schedule.removeEnrolledSection(sdeSection);
+
+        assertTrue(schedule.getConflictingSection(morning).isEmpty());
+        assertEquals(algorithmsSection, schedule.getConflictingSection(afternoon).orElseThrow());
+    }
+
+    @Test
+    void getCreditHours() {
+        var sdeCourse = mock(Course.class);
+        var algorithmsCourse = mock(Course.class);
+        when(sdeCourse.getCreditHours()).thenReturn(3);
+        when(algorithmsCourse.getCreditHours()).thenReturn(4);
+        when(sdeSection.getCourse()).thenReturn(sdeCourse);
+        when(algorithmsSection.getCourse()).thenReturn(algorithmsCourse);
+        schedule = new Schedule(new HashSet<>(Set.of(sdeSection)), new HashSet<>(Set.of(algorithmsSection)));
+
+        assertEquals(3, schedule.getEnrolledCreditHours());
+        assertEquals(7, schedule.getTotalCreditHours());
+    }
+
+    @Test
+    void getCreditHours_updatedOnAddAndRemove() {
+        var sdeCourse = mock(Course.class);
+        var algorithmsCourse = mock(Course.class);
+        when(sdeCourse.getCreditHours()).thenReturn(3);
+        when(algorithmsCourse.getCreditHours()).thenReturn(4);
+        when(sdeSection.getCourse()).thenReturn(sdeCourse);
+        when(algorithmsSection.getCourse()).thenReturn(algorithmsCourse);
+        schedule = new Schedule(new HashSet<>(), new HashSet<>());
+        assertEquals(0, schedule.getTotalCreditHours());
+
+        schedule.addEnrolledSection(sdeSection);
+        schedule.addWaitListedSection(algorithmsSection);
+        assertEquals(3, schedule.getEnrolledCreditHours());
+        assertEquals(7, schedule.getTotalCreditHours());
+
+        schedule.removeWaitListedSection(algorithmsSection);
+        schedule.addEnrolledSection(algorithmsSection);
+        assertEquals(7, schedule.getEnrolledCreditHours());
+        assertEquals(7, schedule.getTotalCreditHours());
+
+        schedule.removeEnrolledSection(sdeSection);
+        schedule.removeEnrolledSection(sdeSection);
+        assertEquals(4, schedule.getEnrolledCreditHours());
+        assertEquals(4, schedule.getTotalCreditHours());
+    }
+
+    @Test
+    void courseIndex_updatedOnAddAndRemove() {
+        var sdeCourse = mock(Course.class);
+        when(sdeSection.getCourse()).thenReturn(sdeCourse);
+        schedule = new Schedule(new HashSet<>(), new HashSet<>());
+        assertFalse(schedule.isEnrolledInCourse(sdeCourse));
+        assertFalse(schedule.isWaitListedInCourse(sdeCourse));
+
+        schedule.addWaitListedSection(sdeSection);
+        assertFalse(schedule.isEnrolledInCourse(sdeCourse));
+        assertEquals(sdeSection, schedule.getWaitListedSection(sdeCourse).orElseThrow());
+
+        schedule.removeWaitListedSection(sdeSection);
+        schedule.addEnrolledSection(sdeSection);
+        assertTrue(schedule.isEnrolledInCourse(sdeCourse));
+        assertEquals(sdeSection, schedule.getEnrolledSection(sdeCourse).orElseThrow());
+        assertFalse(schedule.isWaitListedInCourse(sdeCourse));
+
+        schedule.removeEnrolledSection(sdeSection);
+        assertFalse(schedule.isEnrolledInCourse(sdeCourse));
+        assertTrue(schedule.getEnrolledSection(sdeCourse).isEmpty());
+    }
+
+    @Test
+    void courseIndex_removeKeepsOtherSectionOfCourse() {
+        var sdeCourse = mock(Course.class);
+        when(sdeSection.getCourse()).thenReturn(sdeCourse);
+        when(algorithmsSection.getCourse()).thenReturn(sdeCourse);
+        schedule = new Schedule(new HashSet<>(Set.of(sdeSection, algorithmsSection)), new HashSet<>());
+        var indexed = schedule.getEnrolledSection(sdeCourse).orElseThrow();
+        var other = indexed == sdeSection ? algorithmsSection : sdeSection;
+
+        schedule.removeEnrolledSection(indexed);
+
+        assertEquals(other, schedule.getEnrolledSection(sdeCourse).orElseThrow());
+    }
+}
@@ -0,0 +1,277 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static sde.virginia.edu.hw4.RegistrationService.RegistrationResult.*;
+
+class SectionActorRegistrationServiceTest {
+    private List<Student> students;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        students = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            students.add(new Student(100000000 + i, "stu" + i, "First", "Last", 1));
+        }
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Section section(int crn, int enrollmentCapacity, int waitListCapacity) {
+        return TestSections.section(crn).timeSlot(new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 9, 0, 9, 50))
+                .capacity(enrollmentCapacity, waitListCapacity).build();
+    }
+
+    @Test
+    void registerAsync() {
+        var registrationService = new SectionActorRegistrationService(executor, 1000);
+        var section = section(10001, 10, 5);
+
+        var results = students.stream()
+                .map(student -> registrationService.registerAsync(student, section))
+                .map(CompletableFuture::join)
+                .toList();
+
+        assertEquals(10, results.stream().filter(SUCCESS_ENROLLED::equals).count());
+        assertEquals(5, results.stream().filter(SUCCESS_WAIT_LISTED::equals).count());
+        assertEquals(85, results.stream().filter(FAILED_SECTION_FULL::equals).count());
+        assertEquals(10, section.getEnrollmentSize());
+    }
+
+    @Test
+    void drop_promotesFromWaitList() {
+        var registrationService = new SectionActorRegistrationService(executor, 10);
+        var section = section(10001, 1, 1);
+        registrationService.register(students.get(0), section);
+        registrationService.register(students.get(1), section);
+
+        assertTrue(registrationService.drop(students.get(0), section));
+
+        assertTrue(section.isStudentEnrolled(students.get(1)));
+        assertTrue(students.get(1).isEnrolledInSection(section));
+    }
+
+    @Test
+    void registerAsync_mailboxFull() {
+        var pending = new ArrayList<Runnable>();
+        var registrationService = new SectionActorRegistrationService(pending::add, 2);
+        var section = section(10001, 10, 0);
+
+        var first = registrationService.registerAsync(students.get(0), section);
+        var second = registrationService.registerAsync(students.get(1), section);
+        var third = registrationService.registerAsync(students.get(2), section);
+
+        assertEquals(FAILED_TRY_AGAIN_LATER, third.join());
+        assertFalse(first.isDone());
+        pending.remove(0).run();
+        assertEquals(SUCCESS_ENROLLED, first.join());
+        assertEquals(SUCCESS_ENROLLED, second.join());
+    }
+
+    @Test
+    void dropAsync_mailboxFull() {
+        var pending = new ArrayList<Runnable>();
+        var registrationService = new SectionActorRegistrationService(pending::add, 1);
+        var section = section(10001, 10, 0);
+        registrationService.registerAsync(students.get(0), section);
+
+        var drop = registrationService.dropAsync(students.get(0), section);
+
+        assertThrows(RejectedExecutionException.class, () -> {
+            try {
+                drop.join();
+            } catch (RuntimeException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    @Test
+    void mailboxesAreIndependent() {
+        var pending = new ArrayList<Runnable>();
+        var registrationService = new SectionActorRegistrationService(pending::add, 1);
+        var hot = section(10001, 10, 0);
+        var other = section(10002, 10, 0);
+        registrationService.registerAsync(students.get(0), hot);
+
+        assertEquals(FAILED_TRY_AGAIN_LATER, registrationService.registerAsync(students.get(1), hot).join());
+        var result = registrationService.registerAsync(students.get(1), other);
+        pending.forEach(Runnable::run);
+        assertEquals(SUCCESS_ENROLLED, result.join());
+    }
+
+    @Test
+    void registerAll() {
+        var registrationService = new SectionActorRegistrationService(executor, 10);
+        var first = section(10001, 1, 1);
+        var second = section(10002, 1, 1);
+        var student = students.get(0);
+
+        assertEquals(List.of(FAILED_CART_REJECTED, FAILED_SCHEDULE_CONFLICT),
+                registrationService.registerAll(student, List.of(first, second)));
+        assertFalse(student.isEnrolledInSection(first));
+    }
+
+    @Test
+    void registerAllAsync_waitsForEveryMailbox() {
+        var pending = new ArrayList<Runnable>();
+        var registrationService = new SectionActorRegistrationService(pending::add, 10);
+        var first = section(10001, 1, 1);
+        var second = TestSections.section(10002).timeSlot(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 0, 9, 50))
+                .capacity(1, 1).build();
+        var otherRegistration = registrationService.registerAsync(students.get(1), first);
+
+        var cart = registrationService.registerAllAsync(students.get(0), List.of(first, second));
+        assertEquals(2, pending.size());
+        pending.remove(1).run();
+        assertFalse(cart.isDone());
+        pending.remove(0).run();
+
+        assertEquals(SUCCESS_ENROLLED, otherRegistration.join());
+        assertEquals(List.of(SUCCESS_WAIT_LISTED, SUCCESS_ENROLLED), cart.join());
+    }
+
+    @Test
+    void registerAllAsync_mailboxFull() {
+        var pending = new ArrayList<Runnable>();
+        var registrationService = new SectionActorRegistrationService(pending::add, 1);
+        var first = section(10001, 1, 1);
+        var second = section(10002, 1, 1);
+        var otherRegistration = registrationService.registerAsync(students.get(1), second);
+
+        var cart = registrationService.registerAllAsync(students.get(0), List.of(first, second));
+
+        assertEquals(List.of(FAILED_TRY_AGAIN_LATER, FAILED_TRY_AGAIN_LATER), cart.join());
+        runAll(pending);
+        assertEquals(SUCCESS_ENROLLED, otherRegistration.join());
+        assertFalse(students.get(0).isEnrolledInSection(first));
+        var later = registrationService.registerAsync(students.get(2), first);
+        runAll(pending);
+        assertEquals(SUCCESS_ENROLLED, later.join());
+    }
+
+    private static void runAll(List<Runnable> pending) {
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+    }
+
+    @Test
+    void swap() {
+        var registrationService = new SectionActorRegistrationService(executor, 10);
+        var oldSection = section(10001, 1, 1);
+        var newSection = TestSections.section(10002).sectionNumber(2).course(oldSection.getCourse())
+                .timeSlot(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 0, 9, 50)).capacity(1, 1).build();
+        var swapping = students.get(0);
+        var waitListed = students.get(1);
+        registrationService.register(swapping, oldSection);
+        registrationService.register(waitListed, oldSection);
+
+        assertEquals(SUCCESS_ENROLLED, registrationService.swap(swapping, oldSection, newSection));
+
+        assertTrue(newSection.isStudentEnrolled(swapping));
+        assertTrue(oldSection.isStudentEnrolled(waitListed));
+        assertTrue(waitListed.isEnrolledInSection(oldSection));
+    }
+
+    @Test
+    void swapAsync_opposingDirections() {
+        var registrationService = new SectionActorRegistrationService(executor, 1000);
+        var first = section(10001, 40, 0);
+        var second = TestSections.section(10002).sectionNumber(2).course(first.getCourse())
+                .timeSlot(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 0, 9, 50)).capacity(40, 0).build();
+        for (int i = 0; i < 40; i++) {
+            registrationService.register(students.get(i), i % 2 == 0 ? first : second);
+        }
+
+        var swaps = new ArrayList<CompletableFuture<RegistrationService.RegistrationResult>>();
+        for (int i = 0; i < 40; i++) {
+            swaps.add(registrationService.swapAsync(students.get(i), first, second));
+            swaps.add(registrationService.swapAsync(students.get(i), second, first));
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> CompletableFuture.allOf(swaps.toArray(CompletableFuture[]::new)).join());
+
+        assertEquals(40, first.getEnrollmentSize() + second.getEnrollmentSize());
+        for (int i = 0; i < 40; i++) {
+            var student = students.get(i);
+            assertNotEquals(first.isStudentEnrolled(student), second.isStudentEnrolled(student));
+        }
+    }
+
+    @Test
+    void promoteFromWaitList_throughMailbox() {
+        var pending = new ArrayList<Runnable>();
+        var registrationService = new SectionActorRegistrationService(pending::add, 10);
+        var section = section(10001, 1, 1);
+        registrationService.registerAsync(students.get(0), section);
+        registrationService.registerAsync(students.get(1), section);
+        pending.remove(0).run();
+        section.setEnrollmentCapacity(2);
+
+        var promoted = registrationService.promoteFromWaitListAsync(section);
+        assertFalse(promoted.isDone());
+        pending.remove(0).run();
+
+        assertEquals(List.of(students.get(1)), promoted.join());
+    }
+
+    @Test
+    void closeSection_throughMailbox() {
+        var pending = new ArrayList<Runnable>();
+        var registrationService = new SectionActorRegistrationService(pending::add, 10);
+        var section = section(10001, 1, 1);
+        registrationService.registerAsync(students.get(0), section);
+        registrationService.registerAsync(students.get(1), section);
+        pending.remove(0).run();
+
+        var cleared = registrationService.closeSectionAsync(section);
+        assertFalse(cleared.isDone());
+        pending.remove(0).run();
+
+        assertEquals(List.of(students.get(1)), cleared.join());
+        assertEquals(EnrollmentStatus.CLOSED, section.getEnrollmentStatus());
+        assertFalse(students.get(1).isWaitListedInSection(section));
+    }
+
+    @Test
+    void mailbox_recoversFromError() {
+        var pending = new ArrayList<Runnable>();
+        var registrationService = new SectionActorRegistrationService(pending::add, 10);
+        var section = section(10001, 1, 1);
+        var broken = mock(Student.class);
+        when(broken.isEnrolledInCourse(any())).thenThrow(new StackOverflowError());
+        registrationService.registerAsync(broken, section);
+
+        assertThrows(StackOverflowError.class, () -> pending.remove(0).run());
+
+        var result = registrationService.registerAsync(students.get(0), section);
+        assertEquals(1, pending.size());
+        pending.remove(0).run();
+        assertEquals(SUCCESS_ENROLLED, result.join());
+    }
+
+    @Test
+    void constructor_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new SectionActorRegistrationService(executor, 0));
+    }
+}
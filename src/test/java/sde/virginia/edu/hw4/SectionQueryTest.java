@@ -0,0 +1,78 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionQueryTest {
+    private Section section;
+    private Lecturer lecturer;
+
+    @BeforeEach
+    void setup() {
+        lecturer = new Lecturer(1, "pm8fc", "Paul", "McBurney");
+        section = new Section(10001, 1, new Course(1, "CS", "3140", "Software Development Essentials", 3),
+                new Semester(Term.FALL, 2023), new Location("Rice Hall", "130", 100),
+                new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45), lecturer, 1, 10);
+    }
+
+    @Test
+    void matches_empty() {
+        assertTrue(new SectionQuery().matches(section));
+    }
+
+    @Test
+    void matches_mnemonic() {
+        assertTrue(new SectionQuery().mnemonic("CS").matches(section));
+        assertFalse(new SectionQuery().mnemonic("APMA").matches(section));
+    }
+
+    @Test
+    void matches_courseNumberRange() {
+        assertTrue(new SectionQuery().courseNumberRange(3000, 3999).matches(section));
+        assertFalse(new SectionQuery().courseNumberRange(4000, 4999).matches(section));
+    }
+
+    @Test
+    void matches_courseNumberRange_letters() {
+        var lettered = new Section(10002, 1, new Course(2, "CS", "5999A", "Special Topics", 3),
+                section.getSemester(), section.getLocation(), section.getTimeSlot(), lecturer, 1, 10);
+
+        assertTrue(new SectionQuery().courseNumberRange(5000, 5999).matches(lettered));
+    }
+
+    @Test
+    void courseNumberRange_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new SectionQuery().courseNumberRange(4000, 3000));
+    }
+
+    @Test
+    void matches_meetingDays() {
+        assertTrue(new SectionQuery().meetingDays(Set.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY))
+                .matches(section));
+        assertFalse(new SectionQuery().meetingDays(Set.of(DayOfWeek.TUESDAY)).matches(section));
+    }
+
+    @Test
+    void matches_timeWindow() {
+        assertTrue(new SectionQuery().timeWindow(9, 0, 12, 0).matches(section));
+        assertFalse(new SectionQuery().timeWindow(10, 0, 12, 0).matches(section));
+    }
+
+    @Test
+    void matches_lecturer() {
+        assertTrue(new SectionQuery().lecturer(lecturer).matches(section));
+        assertFalse(new SectionQuery().lecturer(new Lecturer(2, "dh2aa", "Tom", "Horton")).matches(section));
+    }
+
+    @Test
+    void matches_openSeatsOnly() {
+        assertTrue(new SectionQuery().openSeatsOnly().matches(section));
+        section.addStudentToEnrollment(new Student(123456789, "abc2def", "John", "Doe", 1));
+        assertFalse(new SectionQuery().openSeatsOnly().matches(section));
+    }
+}
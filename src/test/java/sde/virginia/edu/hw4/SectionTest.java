@@ -375,4 +375,97 @@ public class SectionTest {
     void getEnrollmentStatus() {
         assertEquals(EnrollmentStatus.OPEN, section.getEnrollmentStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void clearWaitList() {
+        var student = mock(Student.class);
+        when(waitListedStudents.toArray()).thenReturn(new Object[]{student});
+
+        assertEquals(List.of(student), section.clearWaitList());
+
+        verify(waitListedStudents).clear();
+    }
+
+    @Test
+    void tryReserveEnrollment() {
+        section.setEnrollmentCapacity(2);
+
+        assertTrue(section.tryReserveEnrollment());
+        assertTrue(section.tryReserveEnrollment());
+        assertFalse(section.tryReserveEnrollment());
+        assertTrue(section.isEnrollmentFull());
+    }
+
+    @Test
+    void releaseEnrollment() {
+        section.setEnrollmentCapacity(1);
+        section.tryReserveEnrollment();
+
+        section.releaseEnrollment();
+
+        assertFalse(section.isEnrollmentFull());
+        assertTrue(section.tryReserveEnrollment());
+    }
+
+    @Test
+    void tryReserveEnrollment_countsEnrolledStudents() {
+        section.setEnrollmentCapacity(2);
+        when(enrolledStudents.size()).thenReturn(1);
+
+        assertTrue(section.tryReserveEnrollment());
+        assertFalse(section.tryReserveEnrollment());
+    }
+
+    @Test
+    void isFull_tracksCounts() {
+        var realSection = TestSections.section(10001).capacity(1, 1).build();
+        var enrolled = new Student(1, "a1", "First", "Last", 1);
+        var waitListed = new Student(2, "b2", "First", "Last", 1);
+
+        realSection.addStudentToEnrollment(enrolled);
+        assertFalse(realSection.isFull());
+        realSection.addStudentToWaitList(waitListed);
+        assertTrue(realSection.isFull());
+        realSection.removeStudentFromWaitList(waitListed);
+        assertFalse(realSection.isFull());
+        realSection.addStudentToWaitList(waitListed);
+        realSection.clearWaitList();
+        assertFalse(realSection.isFull());
+        realSection.removeStudentFromEnrolled(enrolled);
+        realSection.tryReserveEnrollment();
+        realSection.setWaitListCapacity(0);
+        assertTrue(realSection.isFull());
+    }
+
+    @Test
+    void releaseEnrollment_exception_nothingReserved() {
+        assertThrows(IllegalStateException.class, () -> section.releaseEnrollment());
+    }
+
+    @Test
+    void addStudentToEnrollment_exception_seatReserved() {
+        var student = mock(Student.class);
+        section.setEnrollmentCapacity(1);
+        section.tryReserveEnrollment();
+
+        assertThrows(IllegalStateException.class, () -> section.addStudentToEnrollment(student));
+
+        verify(enrolledStudents, never()).add(student);
+    }
+
+    @Test
+    void getWaitListPosition() {
+        var student = mock(Student.class);
+        when(waitListedStudents.indexOf(student)).thenReturn(3);
+
+        assertEquals(3, section.getWaitListPosition(student));
+    }
+
+    @Test
+    void getWaitListPosition_exception() {
+        var student = mock(Student.class);
+        when(waitListedStudents.indexOf(student)).thenReturn(-1);
+
+        assertThrows(IllegalArgumentException.class, () -> section.getWaitListPosition(student));
+    }
+}
@@ -0,0 +1,86 @@
+package sde.virginia.edu.hw4;
+
+/**
+ * Builds real {@link Section sections} for tests. Every value has a default derived from the CRN, so each test only
+ * sets what it cares about:<br>
+ * a {@link Course} numbered after the CRN, a room in Rice Hall named after the CRN, a {@link Lecturer} with the CRN
+ * as their id, {@link TimeSlot#TUESDAY_THURSDAY} 9:30-10:45, Fall 2023, and room for 50 enrolled and 10 wait-listed
+ * students.
+ */
+final class TestSections {
+    /**
+     * The semester sections are offered in unless a test sets another
+     */
+    static final Semester SEMESTER = new Semester(Term.FALL, 2023);
+
+    private TestSections() {}
+
+    /**
+     * Starts building a section
+     * @param crn the section's course registration number
+     * @return a {@link Builder} with the default values for that CRN
+     */
+    static Builder section(int crn) {
+        return new Builder(crn);
+    }
+
+    static final class Builder {
+        private final int crn;
+        private int sectionNumber = 1;
+        private Course course;
+        private Semester semester = SEMESTER;
+        private Location location;
+        private TimeSlot timeSlot = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        private Lecturer lecturer;
+        private int enrollmentCapacity = 50;
+        private int waitListCapacity = 10;
+
+        private Builder(int crn) {
+            this.crn = crn;
+            this.course = new Course(crn, "CS", String.valueOf(crn), "Course " + crn, 3);
+            this.location = new Location("Rice Hall", String.valueOf(crn), 100);
+            this.lecturer = new Lecturer(crn, "lec" + crn, "First", "Last");
+        }
+
+        Builder sectionNumber(int sectionNumber) {
+            this.sectionNumber = sectionNumber;
+            return this;
+        }
+
+        Builder course(Course course) {
+            this.course = course;
+            return this;
+        }
+
+        Builder semester(Semester semester) {
+            this.semester = semester;
+            return this;
+        }
+
+        Builder location(Location location) {
+            this.location = location;
+            return this;
+        }
+
+        Builder timeSlot(TimeSlot timeSlot) {
+            this.timeSlot = timeSlot;
+            return this;
+        }
+
+        Builder lecturer(Lecturer lecturer) {
+            this.lecturer = lecturer;
+            return this;
+        }
+
+        Builder capacity(int enrollmentCapacity, int waitListCapacity) {
+            this.enrollmentCapacity = enrollmentCapacity;
+            this.waitListCapacity = waitListCapacity;
+            return this;
+        }
+
+        Section build() {
+            return new Section(crn, sectionNumber, course, semester, location, timeSlot, lecturer, enrollmentCapacity,
+                    waitListCapacity);
+        }
+    }
+}
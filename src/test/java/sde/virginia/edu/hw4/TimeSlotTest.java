@@ -28,6 +28,32 @@ class TimeSlotTest {
                 new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 12, 0, 11, 59));
     }
 
+    @Test
+    public void invalidConstructor_outOfRangeTimes() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 0, 600, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimeSlot(TimeSlot.TUESDAY_THURSDAY, -1, 0, 9, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 60, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, -5, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 23, 0, 24, 1));
+    }
+
+    @Test
+    public void constructor_endsAtMidnight() {
+        var timeSlot = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 22, 0, 24, 0);
+
+        assertEquals(24, timeSlot.endTimeHour());
+        assertEquals(0, timeSlot.endTimeMinute());
+        assertEquals(LocationBookings.MINUTES_PER_DAY, timeSlot.endTimeInMinutes());
+    }
+
+    @Test
+    public void invalidConstructor_nullDay() {
+        var days = new HashSet<DayOfWeek>();
+        days.add(DayOfWeek.MONDAY);
+        days.add(null);
+        assertThrows(IllegalArgumentException.class, () -> new TimeSlot(days, 12, 0, 12, 50));
+    }
+
     @Test
     public void isOverlap_noTimeOverlap() {
         var timeSlotA = new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY,
@@ -69,4 +95,54 @@ class TimeSlotTest {
                 11, 30, 12, 01);
         assertTrue(timeSlotB.overlapsWith(timeSlotA));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void isOverlap_oneSharedDay() {
+        var timeSlotA = new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY,
+                12, 0, 12, 50);
+        var timeSlotB = new TimeSlot(Set.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY),
+                12, 30, 13, 30);
+        assertTrue(timeSlotA.overlapsWith(timeSlotB));
+    }
+
+    @Test
+    public void isOverlap_touchingEnds() {
+        var timeSlotA = new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY,
+                12, 0, 12, 50);
+        var timeSlotB = new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY,
+                12, 50, 13, 40);
+        assertFalse(timeSlotA.overlapsWith(timeSlotB));
+        assertFalse(timeSlotB.overlapsWith(timeSlotA));
+    }
+
+    @Test
+    public void timeInMinutes() {
+        var timeSlot = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        assertEquals(570, timeSlot.startTimeInMinutes());
+        assertEquals(645, timeSlot.endTimeInMinutes());
+    }
+
+    @Test
+    public void of_sharesEqualTimeSlots() {
+        var first = TimeSlot.of(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        var second = TimeSlot.of(new HashSet<>(Set.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY)), 9, 30, 10, 45);
+        var constructed = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+        assertSame(first, second);
+        assertEquals(constructed, first);
+        assertEquals(constructed.hashCode(), first.hashCode());
+    }
+
+    @Test
+    public void of_distinctTimeSlots() {
+        assertNotSame(TimeSlot.of(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45),
+                TimeSlot.of(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 9, 30, 10, 45));
+    }
+
+    @Test
+    public void daysNotAffectedByCallersSet() {
+        var days = new HashSet<>(Set.of(DayOfWeek.MONDAY));
+        var timeSlot = new TimeSlot(days, 9, 0, 9, 50);
+        days.add(DayOfWeek.TUESDAY);
+        assertEquals(Set.of(DayOfWeek.MONDAY), timeSlot.days());
+    }
+}
@@ -0,0 +1,102 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitListPromotionPipelineTest {
+    @Mock
+    private Function<Section, List<Student>> promoter;
+    @Mock
+    private Section section, otherSection;
+    @Mock
+    private Student student;
+
+    private List<Runnable> pending;
+    private WaitListPromotionPipeline pipeline;
+
+    @BeforeEach
+    void setup() {
+        pending = new ArrayList<>();
+        pipeline = new WaitListPromotionPipeline(promoter, pending::add);
+    }
+
+    @Test
+    void submit_coalesces() {
+        when(promoter.apply(section)).thenReturn(List.of(student, student));
+
+        pipeline.submit(section);
+        pipeline.submit(section);
+
+        assertEquals(1, pending.size());
+        assertEquals(1, pipeline.getQueueDepth());
+        pending.forEach(Runnable::run);
+        verify(promoter, times(1)).apply(section);
+        assertEquals(0, pipeline.getQueueDepth());
+        assertEquals(1, pipeline.getBatchCount());
+        assertEquals(2, pipeline.getPromotedCount());
+    }
+
+    @Test
+    void submit_separateSections() {
+        when(promoter.apply(any())).thenReturn(List.of());
+
+        pipeline.submit(section);
+        pipeline.submit(otherSection);
+
+        assertEquals(2, pipeline.getQueueDepth());
+        pending.forEach(Runnable::run);
+        assertEquals(2, pipeline.getBatchCount());
+    }
+
+    @Test
+    void submit_afterPromotion() {
+        when(promoter.apply(section)).thenReturn(List.of());
+        pipeline.submit(section);
+        pending.remove(0).run();
+
+        pipeline.submit(section);
+
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    void promotionLag() throws InterruptedException {
+        when(promoter.apply(section)).thenReturn(List.of());
+        pipeline.submit(section);
+        Thread.sleep(5);
+
+        pending.forEach(Runnable::run);
+
+        assertTrue(pipeline.getLastPromotionLag().toMillis() >= 5);
+        assertEquals(pipeline.getLastPromotionLag(), pipeline.getMaxPromotionLag());
+    }
+
+    @Test
+    void submit_rejected() {
+        pipeline = new WaitListPromotionPipeline(promoter, command -> {
+            throw new RejectedExecutionException();
+        });
+
+        assertFalse(pipeline.submit(section));
+        assertFalse(pipeline.submit(section));
+        assertEquals(0, pipeline.getQueueDepth());
+        verifyNoInteractions(promoter);
+    }
+
+    @Test
+    void constructor_exception() {
+        assertThrows(IllegalArgumentException.class, () -> new WaitListPromotionPipeline(null, pending::add));
+    }
+}
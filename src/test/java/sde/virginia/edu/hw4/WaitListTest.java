@@ -0,0 +1,101 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitListTest {
+    private WaitList waitList;
+    private List<Student> students;
+
+    @BeforeEach
+    void setup() {
+        waitList = new WaitList();
+        students = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            var student = new Student(100000000 + i, "stu" + i, "First", "Last", 1);
+            students.add(student);
+            waitList.add(student);
+        }
+    }
+
+    @Test
+    void add_fifoOrder() {
+        assertEquals(students, new ArrayList<>(waitList));
+        assertEquals(students.get(0), waitList.get(0));
+        assertEquals(students.get(3), waitList.get(3));
+    }
+
+    @Test
+    void add_duplicate() {
+        assertFalse(waitList.add(students.get(2)));
+        assertEquals(5, waitList.size());
+    }
+
+    @Test
+    void contains() {
+        assertTrue(waitList.contains(students.get(4)));
+        waitList.remove(students.get(4));
+        assertFalse(waitList.contains(students.get(4)));
+    }
+
+    @Test
+    void indexOf() {
+        for (int i = 0; i < students.size(); i++) {
+            assertEquals(i, waitList.indexOf(students.get(i)));
+        }
+        assertEquals(-1, waitList.indexOf(new Student(1, "x", "y", "z", 1)));
+    }
+
+    @Test
+    void indexOf_afterHeadRemoval() {
+        waitList.remove(students.get(0));
+        waitList.remove(0);
+        waitList.add(students.get(0));
+
+        assertEquals(0, waitList.indexOf(students.get(2)));
+        assertEquals(2, waitList.indexOf(students.get(4)));
+        assertEquals(3, waitList.indexOf(students.get(0)));
+    }
+
+    @Test
+    void indexOf_afterMiddleRemoval() {
+        waitList.remove(students.get(2));
+        waitList.add(students.get(2));
+
+        assertEquals(List.of(students.get(0), students.get(1), students.get(3), students.get(4), students.get(2)),
+                new ArrayList<>(waitList));
+        assertEquals(2, waitList.indexOf(students.get(3)));
+        assertEquals(4, waitList.indexOf(students.get(2)));
+    }
+
+    @Test
+    void iteratorRemove() {
+        var iterator = waitList.iterator();
+        iterator.next();
+        iterator.next();
+        iterator.remove();
+
+        assertEquals(4, waitList.size());
+        assertEquals(1, waitList.indexOf(students.get(2)));
+        assertThrows(IllegalStateException.class, iterator::remove);
+    }
+
+    @Test
+    void clear() {
+        waitList.clear();
+
+        assertTrue(waitList.isEmpty());
+        waitList.add(students.get(3));
+        assertEquals(0, waitList.indexOf(students.get(3)));
+    }
+
+    @Test
+    void get_exception() {
+        assertThrows(IndexOutOfBoundsException.class, () -> waitList.get(5));
+    }
+}
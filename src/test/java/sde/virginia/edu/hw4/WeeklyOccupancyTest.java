@@ -0,0 +1,86 @@
+package sde.virginia.edu.hw4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeeklyOccupancyTest {
+    private WeeklyOccupancy occupancy;
+    private TimeSlot tuesdayThursdayMorning;
+
+    @BeforeEach
+    void setup() {
+        occupancy = new WeeklyOccupancy();
+        tuesdayThursdayMorning = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 45);
+    }
+
+    @Test
+    void isEmpty() {
+        assertTrue(occupancy.isEmpty());
+        occupancy.mark(tuesdayThursdayMorning);
+        assertFalse(occupancy.isEmpty());
+    }
+
+    @Test
+    void intersects_overlap() {
+        occupancy.mark(tuesdayThursdayMorning);
+
+        assertTrue(occupancy.intersects(new TimeSlot(Set.of(DayOfWeek.THURSDAY), 10, 0, 11, 0)));
+    }
+
+    @Test
+    void intersects_backToBack() {
+        occupancy.mark(tuesdayThursdayMorning);
+
+        assertFalse(occupancy.intersects(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 45, 12, 0)));
+        assertFalse(occupancy.intersects(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 8, 0, 9, 30)));
+    }
+
+    @Test
+    void intersects_differentDays() {
+        occupancy.mark(tuesdayThursdayMorning);
+
+        assertFalse(occupancy.intersects(new TimeSlot(TimeSlot.MONDAY_WEDNESDAY_FRIDAY, 9, 30, 10, 45)));
+    }
+
+    @Test
+    void intersects_spansWordBoundary() {
+        occupancy.mark(new TimeSlot(Set.of(DayOfWeek.SUNDAY), 0, 0, 24, 0));
+
+        assertTrue(occupancy.intersects(new TimeSlot(Set.of(DayOfWeek.SUNDAY), 23, 55, 24, 0)));
+        assertFalse(occupancy.intersects(new TimeSlot(Set.of(DayOfWeek.SATURDAY), 0, 0, 24, 0)));
+    }
+
+    @Test
+    void clear() {
+        occupancy.mark(tuesdayThursdayMorning);
+
+        occupancy.clear(tuesdayThursdayMorning);
+
+        assertTrue(occupancy.isEmpty());
+    }
+
+    @Test
+    void clear_keepsSlotsOfRemainingSections() {
+        var sharedSlot = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 43, 11, 30);
+        var otherDay = new TimeSlot(Set.of(DayOfWeek.MONDAY), 9, 30, 10, 45);
+        var later = new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 13, 0, 14, 15);
+        var remaining = Set.of(TestSections.section(1).timeSlot(sharedSlot).build(),
+                TestSections.section(2).timeSlot(otherDay).build(),
+                TestSections.section(3).timeSlot(later).build());
+        occupancy.mark(tuesdayThursdayMorning);
+        remaining.forEach(section -> occupancy.mark(section.getTimeSlot()));
+
+        occupancy.clear(tuesdayThursdayMorning, remaining);
+
+        assertFalse(occupancy.intersects(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 9, 30, 10, 40)));
+        assertTrue(occupancy.intersects(new TimeSlot(TimeSlot.TUESDAY_THURSDAY, 10, 40, 10, 45)));
+        assertTrue(occupancy.intersects(sharedSlot));
+        assertTrue(occupancy.intersects(otherDay));
+        assertTrue(occupancy.intersects(later));
+    }
+}